@@ -0,0 +1,66 @@
+package local.nix.task.management.system.rest.benchmark;
+
+import local.nix.task.management.system.rest.config.security.properties.TaskManagementSystemJWTProperties;
+import local.nix.task.management.system.rest.config.security.properties.TaskManagementSystemSecurityProperties;
+import local.nix.task.management.system.rest.model.user.KnownAuthority;
+import local.nix.task.management.system.rest.model.user.User;
+import local.nix.task.management.system.rest.model.user.UserAuthority;
+import local.nix.task.management.system.rest.model.user.UserStatus;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.time.Instant;
+
+final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    static TaskManagementSystemSecurityProperties securityProperties() {
+        TaskManagementSystemJWTProperties jwtProperties = new TaskManagementSystemJWTProperties();
+        jwtProperties.setSecret(JWTAlgorithmBenchmark.SECRET);
+        jwtProperties.setAccessExpireIn(JWTAlgorithmBenchmark.ACCESS_EXPIRE_IN);
+        jwtProperties.setRefreshExpireIn(JWTAlgorithmBenchmark.REFRESH_EXPIRE_IN);
+        TaskManagementSystemSecurityProperties securityProperties = new TaskManagementSystemSecurityProperties();
+        securityProperties.setJwt(jwtProperties);
+        return securityProperties;
+    }
+
+    static User user() {
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("benchmark_user");
+        user.setName("Benchmark User");
+        user.setPassword("benchmark");
+        user.setStatus(UserStatus.ACTIVE);
+        user.setCreatedAt(Instant.now());
+        for (KnownAuthority value : KnownAuthority.values()) {
+            UserAuthority authority = new UserAuthority();
+            authority.setId(value.ordinal() + 1);
+            authority.setValue(value);
+            user.getAuthorities().put(value, authority);
+        }
+        return user;
+    }
+
+    /**
+     * Spring Data repositories are interfaces with dozens of methods, so benchmarks stub only
+     * the ones the measured path calls and fail loudly on anything else.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T repository(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "toString":
+                    return type.getSimpleName() + " stub";
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    return handler.invoke(proxy, method, args);
+            }
+        });
+    }
+
+}
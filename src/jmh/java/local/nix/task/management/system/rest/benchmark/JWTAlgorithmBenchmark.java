@@ -0,0 +1,94 @@
+package local.nix.task.management.system.rest.benchmark;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import local.nix.task.management.system.rest.config.security.SecurityConstants;
+import local.nix.task.management.system.rest.model.user.KnownAuthority;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JWTAlgorithmBenchmark {
+
+    static final String SECRET = "eitu9aichae7eitee9XiciweishohW3pieshaifasosai5xie9Oomobulohyu8ie";
+
+    static final Duration ACCESS_EXPIRE_IN = Duration.ofMinutes(10);
+
+    static final Duration REFRESH_EXPIRE_IN = Duration.ofDays(3);
+
+    private Algorithm algorithm;
+
+    private String accessToken;
+
+    private String refreshToken;
+
+    @Setup
+    public void setUp() {
+        algorithm = Algorithm.HMAC512(SECRET.getBytes());
+        accessToken = signAccessToken();
+        refreshToken = signRefreshToken();
+    }
+
+    @Benchmark
+    public String signAccessToken() {
+        long issuedAt = System.currentTimeMillis();
+        return JWT.create()
+                .withSubject("benchmark_user")
+                .withIssuedAt(new Date(issuedAt))
+                .withExpiresAt(new Date(issuedAt + ACCESS_EXPIRE_IN.toMillis()))
+                .withArrayClaim(SecurityConstants.AUTHORITIES_CLAIM, new String[]{
+                        KnownAuthority.ROLE_USER.getAuthority(),
+                        KnownAuthority.ROLE_ADMIN.getAuthority()
+                })
+                .sign(algorithm);
+    }
+
+    @Benchmark
+    public String signRefreshToken() {
+        long issuedAt = System.currentTimeMillis();
+        return JWT.create()
+                .withSubject("benchmark_user")
+                .withJWTId(UUID.randomUUID().toString())
+                .withIssuedAt(new Date(issuedAt))
+                .withExpiresAt(new Date(issuedAt + REFRESH_EXPIRE_IN.toMillis()))
+                .sign(algorithm);
+    }
+
+    @Benchmark
+    public DecodedJWT verifyAccessToken() {
+        return JWT.require(algorithm)
+                .build()
+                .verify(accessToken);
+    }
+
+    @Benchmark
+    public UUID verifyRefreshToken() {
+        return UUID.fromString(JWT.require(algorithm)
+                .build()
+                .verify(refreshToken)
+                .getId());
+    }
+
+    @Benchmark
+    public Set<KnownAuthority> decodeAuthorities() {
+        return JWT.decode(accessToken)
+                .getClaim(SecurityConstants.AUTHORITIES_CLAIM)
+                .asList(String.class).stream()
+                .map(KnownAuthority::valueOf)
+                .collect(Collectors.toCollection(() -> EnumSet.noneOf(KnownAuthority.class)));
+    }
+
+}
@@ -0,0 +1,132 @@
+package local.nix.task.management.system.rest.benchmark;
+
+import local.nix.task.management.system.rest.config.security.properties.TaskManagementSystemSecurityProperties;
+import local.nix.task.management.system.rest.config.security.token.JWTCodec;
+import local.nix.task.management.system.rest.exception.auth.InvalidRefreshTokenException;
+import local.nix.task.management.system.rest.model.user.User;
+import local.nix.task.management.system.rest.model.user.security.SecurityUser;
+import local.nix.task.management.system.rest.model.user.security.response.AccessTokenResponse;
+import local.nix.task.management.system.rest.model.user.security.token.RefreshToken;
+import local.nix.task.management.system.rest.repository.RefreshTokenRepository;
+import local.nix.task.management.system.rest.repository.UserRepository;
+import local.nix.task.management.system.rest.repository.token.DatabaseRefreshTokenStore;
+import local.nix.task.management.system.rest.repository.token.InMemoryRefreshTokenStore;
+import local.nix.task.management.system.rest.repository.token.RefreshTokenStore;
+import local.nix.task.management.system.rest.service.JWTAuthService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JWTAuthServiceBenchmark {
+
+    /**
+     * {@code database} stubs the repository, so it measures the service overhead without SQL;
+     * {@code memory} runs the real in-memory store with a JDBC template that discards writes.
+     */
+    @Param({"database", "memory"})
+    public String store;
+
+    private JWTAuthService authService;
+
+    private InMemoryRefreshTokenStore memoryStore;
+
+    private SecurityUser securityUser;
+
+    private String refreshToken;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        User user = BenchmarkFixtures.user();
+        securityUser = new SecurityUser(user);
+        TaskManagementSystemSecurityProperties securityProperties = BenchmarkFixtures.securityProperties();
+
+        RefreshTokenStore refreshTokenStore;
+        if ("memory".equals(store)) {
+            memoryStore = new InMemoryRefreshTokenStore(securityProperties, new DiscardingJdbcTemplate());
+            memoryStore.afterPropertiesSet();
+            refreshTokenStore = memoryStore;
+        } else {
+            refreshTokenStore = new DatabaseRefreshTokenStore(securityProperties, stubRepository(user));
+        }
+        UserRepository userRepository = BenchmarkFixtures.repository(UserRepository.class, (proxy, method, args) -> {
+            throw new UnsupportedOperationException(method.getName());
+        });
+
+        authService = new JWTAuthService(securityProperties, refreshTokenStore, userRepository, event -> {
+        }, new JWTCodec(JWTAlgorithmBenchmark.SECRET));
+        refreshToken = authService.getToken(securityUser).getRefreshToken();
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws InterruptedException {
+        if (memoryStore != null) memoryStore.destroy();
+    }
+
+    @Benchmark
+    public AccessTokenResponse login() {
+        return authService.getToken(securityUser);
+    }
+
+    @Benchmark
+    public AccessTokenResponse refresh() throws InvalidRefreshTokenException {
+        AccessTokenResponse response = authService.refreshToken(refreshToken);
+        refreshToken = response.getRefreshToken();
+        return response;
+    }
+
+    private static RefreshTokenRepository stubRepository(User user) {
+        RefreshToken storedToken = new RefreshToken();
+        OffsetDateTime now = OffsetDateTime.now();
+        storedToken.setFamily(UUID.randomUUID());
+        storedToken.setValue(UUID.randomUUID());
+        storedToken.setUser(user);
+        storedToken.setIssuedAt(now);
+        storedToken.setExpireAt(now.plus(JWTAlgorithmBenchmark.REFRESH_EXPIRE_IN));
+
+        return BenchmarkFixtures.repository(RefreshTokenRepository.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "save":
+                    return args[0];
+                case "rotate":
+                    storedToken.setValue((UUID) args[2]);
+                    return 1;
+                case "findFamily":
+                    return Optional.of(storedToken);
+                case "deleteFamily":
+                    return null;
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+            }
+        });
+    }
+
+    private static final class DiscardingJdbcTemplate extends JdbcTemplate {
+
+        @Override
+        public void query(String sql, RowCallbackHandler rch, Object... args) {
+        }
+
+        @Override
+        public int update(String sql, Object... args) {
+            return 1;
+        }
+
+        @Override
+        public int[] batchUpdate(String sql, List<Object[]> batchArgs) {
+            return new int[batchArgs.size()];
+        }
+    }
+
+}
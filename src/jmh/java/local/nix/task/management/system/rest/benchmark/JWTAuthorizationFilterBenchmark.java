@@ -0,0 +1,68 @@
+package local.nix.task.management.system.rest.benchmark;
+
+import local.nix.task.management.system.rest.config.security.SecurityConstants;
+import local.nix.task.management.system.rest.config.security.filters.JWTAuthorizationFilter;
+import local.nix.task.management.system.rest.config.security.token.AccessTokenDenyList;
+import local.nix.task.management.system.rest.config.security.token.JWTCodec;
+import local.nix.task.management.system.rest.config.security.token.VerifiedTokenCache;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JWTAuthorizationFilterBenchmark {
+
+    @Param({"false", "true"})
+    private boolean cached;
+
+    private JWTAuthorizationFilter filter;
+
+    private MockHttpServletRequest request;
+
+    private MockHttpServletResponse response;
+
+    private FilterChain chain;
+
+    private Blackhole blackhole;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        this.blackhole = blackhole;
+        filter = new JWTAuthorizationFilter(authentication -> authentication,
+                new JWTCodec(JWTAlgorithmBenchmark.SECRET),
+                cached ? new VerifiedTokenCache(1_000) : null,
+                new AccessTokenDenyList(JWTAlgorithmBenchmark.ACCESS_EXPIRE_IN));
+
+        JWTAuthServiceBenchmark tokens = new JWTAuthServiceBenchmark();
+        tokens.setUp();
+        String accessToken = tokens.login().getAccessToken();
+
+        request = new MockHttpServletRequest("GET", "/api/v1/users/me");
+        request.addHeader(HttpHeaders.AUTHORIZATION, SecurityConstants.AUTH_TOKEN_PREFIX + accessToken);
+        response = new MockHttpServletResponse();
+        chain = (req, res) -> this.blackhole.consume(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Benchmark
+    public void authorize() throws IOException, ServletException {
+        try {
+            filter.doFilter(request, response, chain);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+}
@@ -0,0 +1,69 @@
+package local.nix.task.management.system.rest.benchmark;
+
+import local.nix.task.management.system.rest.config.security.token.DecodedToken;
+import local.nix.task.management.system.rest.config.security.token.JWTCodec;
+import local.nix.task.management.system.rest.model.user.KnownAuthority;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counterpart of {@link JWTAlgorithmBenchmark} for {@link JWTCodec}; compare the two with
+ * {@code -Djmh.benchmarks="JWTAlgorithmBenchmark|JWTCodecBenchmark"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JWTCodecBenchmark {
+
+    private static final Set<KnownAuthority> AUTHORITIES = EnumSet.allOf(KnownAuthority.class);
+
+    private JWTCodec codec;
+
+    private String accessToken;
+
+    private String refreshToken;
+
+    @Setup
+    public void setUp() {
+        codec = new JWTCodec(JWTAlgorithmBenchmark.SECRET);
+        accessToken = signAccessToken();
+        refreshToken = signRefreshToken();
+    }
+
+    @Benchmark
+    public String signAccessToken() {
+        long issuedAt = System.currentTimeMillis();
+        return codec.encodeAccessToken(1, "benchmark_user", AUTHORITIES,
+                issuedAt, issuedAt + JWTAlgorithmBenchmark.ACCESS_EXPIRE_IN.toMillis());
+    }
+
+    @Benchmark
+    public String signRefreshToken() {
+        long issuedAt = System.currentTimeMillis();
+        return codec.encodeRefreshToken("benchmark_user", UUID.randomUUID(), UUID.randomUUID(),
+                issuedAt, issuedAt + JWTAlgorithmBenchmark.REFRESH_EXPIRE_IN.toMillis());
+    }
+
+    @Benchmark
+    public DecodedToken verifyAccessToken() {
+        return codec.decode(accessToken);
+    }
+
+    @Benchmark
+    public UUID verifyRefreshToken() {
+        return UUID.fromString(codec.decode(refreshToken).getId());
+    }
+
+    @Benchmark
+    public Set<KnownAuthority> decodeAuthorities() {
+        return codec.decode(accessToken).getAuthorities();
+    }
+
+}
@@ -0,0 +1,198 @@
+package local.nix.task.management.system.rest.benchmark;
+
+import local.nix.task.management.system.rest.model.user.UserStatus;
+import local.nix.task.management.system.rest.repository.token.PostgresRefreshTokenRotation;
+import local.nix.task.management.system.rest.repository.token.TimeOrderedUuid;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCallback;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Refresh token rotation against a migrated PostgreSQL database, taken from the {@code BENCHMARK_DATASOURCE_*}
+ * environment variables or the defaults of {@code application.yml}. Statements and commits per rotation are
+ * printed after every iteration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RefreshTokenRotationBenchmark {
+
+    private static final String ROTATE_FAMILY = "update refresh_token set value = ?, issued_at = ?, expire_at = ? " +
+            "where family = ? and value = ? and expire_at > ? " +
+            "and exists (select u.id from usr u where u.id = refresh_token.user_id and u.status = ?)";
+
+    private static final String SELECT_FAMILY = "select rt.family, rt.value, rt.issued_at, rt.expire_at, " +
+            "u.id, u.username, u.password, u.name, u.status, u.created_at " +
+            "from refresh_token rt inner join usr u on u.id = rt.user_id where rt.family = ?";
+
+    private static final String SELECT_AUTHORITIES = "select a.id, a.value from user_authorities ua " +
+            "inner join authorities a on a.id = ua.authority_id where ua.user_id = ?";
+
+    private static final String SELECT_FAMILY_WITH_AUTHORITIES = "select rt.family, rt.value, rt.issued_at, " +
+            "rt.expire_at, u.id, u.username, u.password, u.name, u.status, u.created_at, a.id, a.value " +
+            "from refresh_token rt inner join usr u on u.id = rt.user_id " +
+            "left join user_authorities ua on ua.user_id = u.id left join authorities a on a.id = ua.authority_id " +
+            "where rt.family = ?";
+
+    private static final Duration REFRESH_EXPIRE_IN = JWTAlgorithmBenchmark.REFRESH_EXPIRE_IN;
+
+    /**
+     * {@code update-select-select} is the rotation Hibernate issued before, with the authorities loaded lazily;
+     * {@code update-select} is the portable fallback; {@code single-statement} is the PostgreSQL rotation.
+     */
+    @Param({"update-select-select", "update-select", "single-statement"})
+    public String rotation;
+
+    private SingleConnectionDataSource dataSource;
+
+    private CountingJdbcTemplate jdbcTemplate;
+
+    private CountingTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    private PostgresRefreshTokenRotation postgresRotation;
+
+    private long userId;
+
+    private UUID family;
+
+    private UUID value;
+
+    private long rotations;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataSource = new SingleConnectionDataSource(
+                env("BENCHMARK_DATASOURCE_URL", "jdbc:postgresql://localhost:5432/task_management_system_db"),
+                env("BENCHMARK_DATASOURCE_USERNAME", "postgres"),
+                env("BENCHMARK_DATASOURCE_PASSWORD", "changeme"),
+                true);
+        jdbcTemplate = new CountingJdbcTemplate(dataSource);
+        transactionManager = new CountingTransactionManager(dataSource);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        postgresRotation = new PostgresRefreshTokenRotation(jdbcTemplate);
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    "insert into usr (username, password, name, status) values (?, ?, ?, ?)", new String[]{"id"});
+            statement.setString(1, "rotation_benchmark_" + UUID.randomUUID());
+            statement.setString(2, "benchmark");
+            statement.setString(3, "Rotation Benchmark");
+            statement.setString(4, UserStatus.ACTIVE.name());
+            return statement;
+        }, keyHolder);
+        userId = Objects.requireNonNull(keyHolder.getKey()).longValue();
+        jdbcTemplate.update("insert into user_authorities (user_id, authority_id) select ?, id from authorities", userId);
+
+        OffsetDateTime now = OffsetDateTime.now();
+        family = TimeOrderedUuid.next();
+        value = TimeOrderedUuid.next();
+        jdbcTemplate.update("insert into refresh_token (family, value, user_id, issued_at, expire_at) " +
+                "values (?, ?, ?, ?, ?)", family, value, userId, now, now.plus(REFRESH_EXPIRE_IN));
+    }
+
+    @Setup(Level.Iteration)
+    public void resetCounters() {
+        jdbcTemplate.statements = 0;
+        transactionManager.commits = 0;
+        rotations = 0;
+    }
+
+    @TearDown(Level.Iteration)
+    public void printCounters() {
+        System.out.printf("%n%s: %.2f statements, %.2f commits per rotation%n", rotation,
+                (double) jdbcTemplate.statements / rotations, (double) transactionManager.commits / rotations);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        jdbcTemplate.update("delete from usr where id = ?", userId);
+        dataSource.destroy();
+    }
+
+    @Benchmark
+    public UUID rotate() {
+        OffsetDateTime now = OffsetDateTime.now();
+        UUID next = TimeOrderedUuid.next();
+        switch (rotation) {
+            case "update-select-select":
+                transactionTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.update(ROTATE_FAMILY, next, now, now.plus(REFRESH_EXPIRE_IN), family, value, now,
+                            UserStatus.ACTIVE.name());
+                    jdbcTemplate.queryForList(SELECT_FAMILY, family);
+                    jdbcTemplate.queryForList(SELECT_AUTHORITIES, userId);
+                });
+                break;
+            case "update-select":
+                transactionTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.update(ROTATE_FAMILY, next, now, now.plus(REFRESH_EXPIRE_IN), family, value, now,
+                            UserStatus.ACTIVE.name());
+                    jdbcTemplate.queryForList(SELECT_FAMILY_WITH_AUTHORITIES, family);
+                });
+                break;
+            default:
+                postgresRotation.rotate(family, value, next, now, now.plus(REFRESH_EXPIRE_IN))
+                        .orElseThrow(IllegalStateException::new);
+        }
+        rotations++;
+        value = next;
+        return next;
+    }
+
+    private static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value != null ? value : defaultValue;
+    }
+
+    private static final class CountingJdbcTemplate extends JdbcTemplate {
+
+        private long statements;
+
+        private CountingJdbcTemplate(SingleConnectionDataSource dataSource) {
+            super(dataSource);
+        }
+
+        @Override
+        public <T> T execute(PreparedStatementCreator psc, PreparedStatementCallback<T> action)
+                throws DataAccessException {
+            statements++;
+            return super.execute(psc, action);
+        }
+    }
+
+    private static final class CountingTransactionManager extends DataSourceTransactionManager {
+
+        private long commits;
+
+        private CountingTransactionManager(SingleConnectionDataSource dataSource) {
+            super(dataSource);
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+            commits++;
+            super.doCommit(status);
+        }
+    }
+
+}
@@ -0,0 +1,10 @@
+package local.nix.task.management.system.rest.config.cache;
+
+import local.nix.task.management.system.rest.config.cache.properties.TaskManagementSystemUserCacheProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(TaskManagementSystemUserCacheProperties.class)
+public class CacheConfig {
+}
@@ -0,0 +1,48 @@
+package local.nix.task.management.system.rest.config.cache.properties;
+
+import org.hibernate.validator.constraints.time.DurationMin;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import javax.validation.constraints.Positive;
+import java.time.Duration;
+
+@Validated
+@ConfigurationProperties(prefix = "task-management-system.cache.users")
+public class TaskManagementSystemUserCacheProperties {
+
+    private boolean enabled;
+
+    @Positive
+    private long maxSize = 10_000;
+
+    /**
+     * Bounds how long an entry may outlive a change that was not published as an event.
+     */
+    @DurationMin(seconds = 1)
+    private Duration expireAfterWrite = Duration.ofMinutes(10);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(long maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public Duration getExpireAfterWrite() {
+        return expireAfterWrite;
+    }
+
+    public void setExpireAfterWrite(Duration expireAfterWrite) {
+        this.expireAfterWrite = expireAfterWrite;
+    }
+}
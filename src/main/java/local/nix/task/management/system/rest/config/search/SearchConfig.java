@@ -0,0 +1,32 @@
+package local.nix.task.management.system.rest.config.search;
+
+import local.nix.task.management.system.rest.config.search.properties.TaskManagementSystemSearchProperties;
+import org.flywaydb.core.api.Location;
+import org.springframework.boot.autoconfigure.flyway.FlywayConfigurationCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Arrays;
+
+@Configuration
+@EnableConfigurationProperties(TaskManagementSystemSearchProperties.class)
+public class SearchConfig {
+
+    public static final String FULL_TEXT_LOCATION = "classpath:db/full-text";
+
+    /**
+     * The full-text objects need the {@code pg_trgm} extension, which many databases do not allow to create, so
+     * they are only migrated in the mode that uses them.
+     */
+    @Bean
+    public FlywayConfigurationCustomizer fullTextSearchMigrations(TaskManagementSystemSearchProperties properties) {
+        return configuration -> {
+            if (properties.getMode() != TaskManagementSystemSearchProperties.Mode.FULL_TEXT) return;
+            Location[] locations = configuration.getLocations();
+            Location[] withFullText = Arrays.copyOf(locations, locations.length + 1);
+            withFullText[locations.length] = new Location(FULL_TEXT_LOCATION);
+            configuration.locations(withFullText);
+        };
+    }
+}
@@ -0,0 +1,52 @@
+package local.nix.task.management.system.rest.config.search.properties;
+
+import org.hibernate.validator.constraints.time.DurationMin;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import javax.validation.constraints.NotNull;
+import java.time.Duration;
+
+@Validated
+@ConfigurationProperties(prefix = "task-management-system.search")
+public class TaskManagementSystemSearchProperties {
+
+    @NotNull
+    private Mode mode = Mode.LIKE;
+
+    @DurationMin(seconds = 1)
+    private Duration estimatedCountTtl = Duration.ofMinutes(1);
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public void setMode(Mode mode) {
+        this.mode = mode;
+    }
+
+    public Duration getEstimatedCountTtl() {
+        return estimatedCountTtl;
+    }
+
+    public void setEstimatedCountTtl(Duration estimatedCountTtl) {
+        this.estimatedCountTtl = estimatedCountTtl;
+    }
+
+    public enum Mode {
+        /**
+         * Substring matching with {@code like}; portable, but scans the task table.
+         */
+        LIKE,
+        /**
+         * PostgreSQL text search and trigram indexes; needs the {@code pg_trgm} extension, and creates it along with
+         * the indexes from {@code db/full-text} on every migration.
+         */
+        FULL_TEXT,
+        /**
+         * An in-memory trigram index of task text and executor names; needs no database support, but every
+         * instance holds the text of all tasks.
+         */
+        MEMORY
+    }
+}
@@ -1,17 +1,46 @@
 package local.nix.task.management.system.rest.config.security;
 
+import local.nix.task.management.system.rest.config.security.password.BoundedPasswordEncoder;
+import local.nix.task.management.system.rest.config.security.password.CalibratedPasswordEncoder;
+import local.nix.task.management.system.rest.config.security.properties.TaskManagementSystemPasswordProperties;
+import local.nix.task.management.system.rest.config.security.properties.TaskManagementSystemSecurityProperties;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
-
-import java.security.SecureRandom;
 
 @Configuration
 public class PasswordEncoderConfig {
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(12, new SecureRandom());
+    public BoundedPasswordEncoder passwordEncoder(TaskManagementSystemSecurityProperties securityProperties,
+                                                  ServerProperties serverProperties) {
+        TaskManagementSystemPasswordProperties passwordProperties = securityProperties.getPassword();
+        Integer strength = passwordProperties.getStrength();
+        CalibratedPasswordEncoder encoder = strength != null
+                ? new CalibratedPasswordEncoder(strength)
+                : CalibratedPasswordEncoder.calibrate(passwordProperties.getTargetLatency(),
+                        passwordProperties.getMinStrength(), passwordProperties.getMaxStrength());
+        return new BoundedPasswordEncoder(
+                encoder,
+                passwordProperties.getHashingThreads(),
+                passwordProperties.getHashingQueueCapacity(),
+                maxWaitingCallers(passwordProperties, serverProperties)
+        );
+    }
+
+    /**
+     * Half of Undertow's worker threads unless configured, so that a login burst never holds more than that.
+     */
+    private static int maxWaitingCallers(TaskManagementSystemPasswordProperties passwordProperties,
+                                         ServerProperties serverProperties) {
+        if (passwordProperties.getMaxWaitingCallers() != null) return passwordProperties.getMaxWaitingCallers();
+        ServerProperties.Undertow.Threads threads = serverProperties.getUndertow().getThreads();
+        Integer io = threads.getIo();
+        Integer worker = threads.getWorker();
+        // Undertow's own defaults
+        int workers = worker != null
+                ? worker
+                : (io != null ? io : Math.max(Runtime.getRuntime().availableProcessors(), 2)) * 8;
+        return Math.max(workers / 2, 1);
     }
 }
@@ -4,11 +4,22 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import local.nix.task.management.system.rest.Routes;
 import local.nix.task.management.system.rest.config.security.filters.JWTAuthenticationFilter;
 import local.nix.task.management.system.rest.config.security.filters.JWTAuthorizationFilter;
+import local.nix.task.management.system.rest.config.security.filters.RateLimitingFilter;
+import local.nix.task.management.system.rest.config.security.properties.AdminBootstrapMode;
 import local.nix.task.management.system.rest.config.security.properties.TaskManagementSystemSecurityProperties;
+import local.nix.task.management.system.rest.config.security.ratelimit.RequestRateLimits;
+import local.nix.task.management.system.rest.config.security.token.AccessTokenDenyList;
+import local.nix.task.management.system.rest.config.security.token.JWTCodec;
+import local.nix.task.management.system.rest.config.security.token.VerifiedTokenCache;
 import local.nix.task.management.system.rest.model.user.request.SaveUserRequest;
 import local.nix.task.management.system.rest.service.UserService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -16,6 +27,8 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.util.StopWatch;
 
 import javax.annotation.PostConstruct;
 import java.util.List;
@@ -26,6 +39,8 @@ import java.util.stream.Collectors;
 @EnableConfigurationProperties(TaskManagementSystemSecurityProperties.class)
 public class SecurityConfig extends WebSecurityConfigurerAdapter {
 
+    private static final Logger log = LoggerFactory.getLogger(SecurityConfig.class);
+
     private final TaskManagementSystemSecurityProperties securityProperties;
 
     private final UserService userService;
@@ -34,44 +49,78 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
 
     private final ObjectMapper objectMapper;
 
+    private final JWTCodec jwtCodec;
+
+    private final ObjectProvider<VerifiedTokenCache> verifiedTokenCache;
+
+    private final AccessTokenDenyList accessTokenDenyList;
+
+    private final ObjectProvider<RequestRateLimits> requestRateLimits;
+
     public SecurityConfig(TaskManagementSystemSecurityProperties securityProperties, UserService userService,
-                          PasswordEncoder passwordEncoder, ObjectMapper objectMapper) {
+                          PasswordEncoder passwordEncoder, ObjectMapper objectMapper, JWTCodec jwtCodec,
+                          ObjectProvider<VerifiedTokenCache> verifiedTokenCache,
+                          AccessTokenDenyList accessTokenDenyList,
+                          ObjectProvider<RequestRateLimits> requestRateLimits) {
         this.securityProperties = securityProperties;
         this.userService = userService;
         this.passwordEncoder = passwordEncoder;
         this.objectMapper = objectMapper;
+        this.jwtCodec = jwtCodec;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.accessTokenDenyList = accessTokenDenyList;
+        this.requestRateLimits = requestRateLimits;
     }
 
     @PostConstruct
     public void init() {
-        setupDefaultAdmins();
+        if (securityProperties.getAdminBootstrap() == AdminBootstrapMode.BLOCKING) setupDefaultAdmins();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (securityProperties.getAdminBootstrap() == AdminBootstrapMode.DEFERRED) setupDefaultAdmins();
     }
 
     private void setupDefaultAdmins() {
+        StopWatch stopWatch = new StopWatch();
+        stopWatch.start();
         List<SaveUserRequest> requests = securityProperties.getAdmins().entrySet().stream()
                 .map(entry -> new SaveUserRequest(
                         entry.getValue().getUsername(),
                         entry.getValue().getPassword(),
                         entry.getValue().getName()
                 )).collect(Collectors.toList());
-        userService.mergeAdmins(requests);
+        int updated = userService.mergeAdmins(requests);
+        stopWatch.stop();
+        log.info("Admin bootstrap ({}) updated {} of {} admins in {} ms", securityProperties.getAdminBootstrap(),
+                updated, requests.size(), stopWatch.getTotalTimeMillis());
     }
 
 
     @Override
     protected void configure(AuthenticationManagerBuilder auth) throws Exception {
-        auth.userDetailsService(userService).passwordEncoder(passwordEncoder);
+        auth.userDetailsService(userService)
+                .passwordEncoder(passwordEncoder)
+                .userDetailsPasswordManager(userService);
     }
 
     @Override
     protected void configure(HttpSecurity http) throws Exception {
+        RequestRateLimits rateLimits = requestRateLimits.getIfAvailable();
+        if (rateLimits != null) {
+            http.addFilterBefore(new RateLimitingFilter(rateLimits, objectMapper), UsernamePasswordAuthenticationFilter.class);
+        }
         http.authorizeRequests()
-                .antMatchers("/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html", "/h2-console/**").permitAll()
+                .antMatchers("/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html", "/h2-console/**", "/error").permitAll()
                 .antMatchers(HttpMethod.POST, Routes.USERS, Routes.TOKEN + "/refresh").permitAll()
                 .antMatchers(HttpMethod.POST, Routes.USERS + "/admins").hasRole("ADMIN")
+                .antMatchers(HttpMethod.POST, Routes.TASKS + "/bulk").hasRole("ADMIN")
                 .antMatchers(HttpMethod.PATCH, Routes.TASKS + "/{id:\\d+}/take").hasRole("USER")
                 .antMatchers(HttpMethod.DELETE,Routes.TASKS + "/{id:\\d+}").hasRole("ADMIN")
                 .antMatchers(HttpMethod.PATCH,Routes.TASKS + "/{id:\\d+}").hasRole("ADMIN")
+                .antMatchers("/actuator/health").permitAll()
+                .antMatchers("/actuator/**").hasRole("ADMIN")
                 .anyRequest().authenticated()
                 .and()
                 .addFilter(jwtAuthenticationFilter())
@@ -87,7 +136,8 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
     }
 
     private JWTAuthorizationFilter jwtAuthorizationFilter() throws Exception {
-        return new JWTAuthorizationFilter(authenticationManager(), securityProperties.getJwt());
+        return new JWTAuthorizationFilter(authenticationManager(), jwtCodec, verifiedTokenCache.getIfAvailable(),
+                accessTokenDenyList);
     }
 
 
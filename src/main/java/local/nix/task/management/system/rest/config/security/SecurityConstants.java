@@ -9,4 +9,13 @@ public final class SecurityConstants {
     public static final String AUTH_TOKEN_PREFIX = "Bearer ";
 
     public static final String AUTHORITIES_CLAIM = "authorities";
+
+    public static final String FAMILY_CLAIM = "fam";
+
+    public static final String USER_ID_CLAIM = "uid";
+
+    /**
+     * Authorities of an access token as a bitmask, bit {@code n} standing for the {@code n}-th {@code KnownAuthority}.
+     */
+    public static final String AUTHORITY_MASK_CLAIM = "aut";
 }
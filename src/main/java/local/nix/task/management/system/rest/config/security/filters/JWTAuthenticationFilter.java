@@ -1,7 +1,10 @@
 package local.nix.task.management.system.rest.config.security.filters;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import local.nix.task.management.system.rest.exception.auth.PasswordHashingRejectedException;
 import local.nix.task.management.system.rest.model.user.security.request.UserLoginRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -43,9 +46,23 @@ public class JWTAuthenticationFilter extends UsernamePasswordAuthenticationFilte
                 credentials.getPassword()
         );
 
+        try {
             return getAuthenticationManager().authenticate(authToken);
+        } catch (PasswordHashingRejectedException e) {
+            rejectOverload(response, e);
+            return null;
+        }
+
+    }
 
+    private void rejectOverload(HttpServletResponse response, PasswordHashingRejectedException e) {
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        try {
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), e.getMessage());
+        } catch (IOException ioException) {
+            throw new UncheckedIOException(ioException);
         }
+    }
 
 
 
@@ -1,11 +1,11 @@
 package local.nix.task.management.system.rest.config.security.filters;
 
-import com.auth0.jwt.JWT;
-import com.auth0.jwt.algorithms.Algorithm;
-import com.auth0.jwt.interfaces.DecodedJWT;
 import local.nix.task.management.system.rest.config.security.SecurityConstants;
-import local.nix.task.management.system.rest.config.security.properties.TaskManagementSystemJWTProperties;
-import local.nix.task.management.system.rest.model.user.KnownAuthority;
+import local.nix.task.management.system.rest.config.security.token.AccessTokenDenyList;
+import local.nix.task.management.system.rest.config.security.token.DecodedToken;
+import local.nix.task.management.system.rest.config.security.token.JWTCodec;
+import local.nix.task.management.system.rest.config.security.token.VerifiedTokenCache;
+import local.nix.task.management.system.rest.model.user.security.TokenPrincipal;
 import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -19,19 +19,30 @@ import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import java.util.EnumSet;
+import java.time.Instant;
 import java.util.Objects;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 
 public class JWTAuthorizationFilter extends BasicAuthenticationFilter {
 
-    private final Algorithm algorithm;
+    private final JWTCodec codec;
 
-    public JWTAuthorizationFilter(AuthenticationManager authenticationManager, TaskManagementSystemJWTProperties jwtProperties) {
+    private final VerifiedTokenCache tokenCache;
+
+    private final AccessTokenDenyList denyList;
+
+    public JWTAuthorizationFilter(AuthenticationManager authenticationManager, JWTCodec codec) {
+        this(authenticationManager, codec, null, null);
+    }
+
+    public JWTAuthorizationFilter(AuthenticationManager authenticationManager,
+                                  JWTCodec codec,
+                                  VerifiedTokenCache tokenCache,
+                                  AccessTokenDenyList denyList) {
         super(authenticationManager);
-        algorithm = Algorithm.HMAC512(jwtProperties.getSecret().getBytes());
+        this.codec = codec;
+        this.tokenCache = tokenCache;
+        this.denyList = denyList;
     }
 
     @Override
@@ -60,23 +71,37 @@ public class JWTAuthorizationFilter extends BasicAuthenticationFilter {
 
     private UsernamePasswordAuthenticationToken getAuthentication(String encodedJwt) {
 
-        DecodedJWT decodedJWT;
+        if (tokenCache != null) {
+            VerifiedTokenCache.VerifiedToken cached = tokenCache.get(encodedJwt);
+            if (cached != null) {
+                UsernamePasswordAuthenticationToken authentication = cached.getAuthentication();
+                return isDenied(authentication.getName(), cached.getIssuedAt()) ? null : authentication;
+            }
+        }
+
+        DecodedToken decodedToken;
         try {
-            decodedJWT = JWT.require(algorithm)
-                    .build()
-                    .verify(encodedJwt);
+            decodedToken = codec.decode(encodedJwt);
         } catch (Exception e) {
             return null;
         }
+        if (decodedToken.getUserId() == null || isDenied(decodedToken.getSubject(), decodedToken.getIssuedAt())) {
+            return null;
+        }
 
-        String username = decodedJWT.getSubject();
-
-        Set<KnownAuthority> authorities = decodedJWT.getClaim(SecurityConstants.AUTHORITIES_CLAIM)
-                .asList(String.class).stream()
-                .map(KnownAuthority::valueOf)
-                .collect(Collectors.toCollection(() -> EnumSet.noneOf(KnownAuthority.class)));
+        TokenPrincipal principal = new TokenPrincipal(decodedToken.getUserId(), decodedToken.getSubject(),
+                decodedToken.getAuthorities());
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                principal, null, decodedToken.getAuthorities());
+        if (tokenCache != null && decodedToken.getExpiresAt() != 0) {
+            tokenCache.put(encodedJwt, authentication, decodedToken.getIssuedAt(),
+                    Instant.ofEpochSecond(decodedToken.getExpiresAt()));
+        }
+        return authentication;
 
-        return new UsernamePasswordAuthenticationToken(username, null, authorities);
+    }
 
+    private boolean isDenied(String subject, long issuedAt) {
+        return denyList != null && denyList.isDenied(subject, issuedAt);
     }
 }
@@ -0,0 +1,159 @@
+package local.nix.task.management.system.rest.config.security.filters;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import local.nix.task.management.system.rest.Routes;
+import local.nix.task.management.system.rest.config.security.ratelimit.RequestRateLimits;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rejects login, refresh and signup requests over their limits with 429 before they reach password hashing.
+ */
+public class RateLimitingFilter extends OncePerRequestFilter {
+
+    private static final RequestMatcher LOGIN = new AntPathRequestMatcher(Routes.TOKEN, HttpMethod.POST.name());
+
+    private static final RequestMatcher REFRESH =
+            new AntPathRequestMatcher(Routes.TOKEN + "/refresh", HttpMethod.POST.name());
+
+    private static final RequestMatcher SIGNUP = new AntPathRequestMatcher(Routes.USERS, HttpMethod.POST.name());
+
+    /**
+     * The login body is read into memory to find the login name, and a username with a password fits many times over.
+     */
+    private static final int MAX_LOGIN_BODY = 4096;
+
+    private final RequestRateLimits limits;
+
+    private final ObjectMapper objectMapper;
+
+    public RateLimitingFilter(RequestRateLimits limits, ObjectMapper objectMapper) {
+        this.limits = limits;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String address = request.getRemoteAddr();
+        long wait = 0;
+        if (LOGIN.matches(request)) {
+            wait = limits.getLogin().tryAcquire(address);
+            if (wait == 0) {
+                byte[] body = readLoginBody(request);
+                if (body == null) {
+                    response.sendError(HttpStatus.PAYLOAD_TOO_LARGE.value(), "Login request body is too large");
+                    return;
+                }
+                request = new CachedBodyRequest(request, body);
+                String loginName = loginName(body);
+                if (loginName != null) wait = limits.getLoginName().tryAcquire(loginName);
+            }
+        } else if (REFRESH.matches(request)) {
+            wait = limits.getRefresh().tryAcquire(address);
+        } else if (SIGNUP.matches(request)) {
+            wait = limits.getSignup().tryAcquire(address);
+        }
+
+        if (wait > 0) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(
+                    TimeUnit.NANOSECONDS.toSeconds(wait + TimeUnit.SECONDS.toNanos(1) - 1)));
+            response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), "Too many requests, retry later");
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    /**
+     * @return the body, or null if it is longer than {@link #MAX_LOGIN_BODY}, whether declared or chunked
+     */
+    private static byte[] readLoginBody(HttpServletRequest request) throws IOException {
+        if (request.getContentLengthLong() > MAX_LOGIN_BODY) return null;
+        byte[] body = request.getInputStream().readNBytes(MAX_LOGIN_BODY + 1);
+        return body.length > MAX_LOGIN_BODY ? null : body;
+    }
+
+    private String loginName(byte[] body) {
+        try {
+            JsonNode username = objectMapper.readTree(body).path("username");
+            return username.isTextual() ? username.asText() : null;
+        } catch (IOException e) {
+            // malformed bodies are rejected by the authentication filter
+            return null;
+        }
+    }
+
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream stream = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+
+                @Override
+                public boolean isFinished() {
+                    return stream.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                /**
+                 * The body is already in memory, so all of it is available at once.
+                 */
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    try {
+                        if (!isFinished()) readListener.onDataAvailable();
+                        if (isFinished()) readListener.onAllDataRead();
+                    } catch (IOException e) {
+                        readListener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return stream.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return stream.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(), encoding == null ? "UTF-8" : encoding));
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package local.nix.task.management.system.rest.config.security.password;
+
+import local.nix.task.management.system.rest.exception.auth.PasswordHashingRejectedException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs the delegate encoder on a fixed pool of hashing threads with a bounded queue.
+ * When both are full the call fails immediately with {@link PasswordHashingRejectedException}
+ * instead of piling up request threads behind CPU-bound hashes.
+ * <p>
+ * The synchronous {@link #encode} and {@link #matches} park their caller until the hash is done, so they are
+ * also limited to a number of waiting callers: with the server's worker threads as callers, the limit keeps the
+ * rest of the workers free for other requests however long the queue is.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+    private final PasswordEncoder delegate;
+
+    private final ThreadPoolExecutor executor;
+
+    private final Semaphore waitingCallers;
+
+    /**
+     * @param maxWaitingCallers how many callers of the synchronous methods may wait for a hash at once
+     */
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, int maxWaitingCallers) {
+        this.delegate = delegate;
+        this.waitingCallers = new Semaphore(maxWaitingCallers);
+        BlockingQueue<Runnable> queue = queueCapacity > 0
+                ? new ArrayBlockingQueue<>(queueCapacity)
+                : new SynchronousQueue<>();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, queue,
+                new HashingThreadFactory(), new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public CompletableFuture<String> encodeAsync(CharSequence rawPassword) {
+        return submit(() -> delegate.encode(rawPassword));
+    }
+
+    public CompletableFuture<Boolean> matchesAsync(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return await(() -> encodeAsync(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return await(() -> matchesAsync(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    public PasswordEncoder getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            throw new PasswordHashingRejectedException(e);
+        }
+    }
+
+    private <T> T await(Supplier<CompletableFuture<T>> submission) {
+        if (!waitingCallers.tryAcquire()) throw new PasswordHashingRejectedException();
+        try {
+            return submission.get().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw new CompletionException(cause);
+        } finally {
+            waitingCallers.release();
+        }
+    }
+
+    private static final class HashingThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "password-hashing-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package local.nix.task.management.system.rest.config.security.password;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Stores hashes as {@code {bcrypt}$2a$<cost>$...}, so every hash carries its algorithm and work factor.
+ * Hashes written with another algorithm, a lower cost or without the prefix report
+ * {@link #upgradeEncoding(String)} and get re-encoded on the owner's next successful login. A higher cost is
+ * only brought down once it is more than one step above: calibration on different hosts may land a step apart,
+ * and without the margin every login would rehash back and forth between them.
+ */
+public class CalibratedPasswordEncoder implements PasswordEncoder {
+
+    private static final Logger log = LoggerFactory.getLogger(CalibratedPasswordEncoder.class);
+
+    static final String BCRYPT_ID = "bcrypt";
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("\\A\\$2[aby]?\\$(\\d\\d)\\$");
+
+    private static final int CALIBRATION_ROUNDS = 3;
+
+    private final int strength;
+
+    private final DelegatingPasswordEncoder delegate;
+
+    public CalibratedPasswordEncoder(int strength) {
+        this.strength = strength;
+        SecureRandom random = new SecureRandom();
+        this.delegate = new DelegatingPasswordEncoder(BCRYPT_ID,
+                Map.of(BCRYPT_ID, new CostBandBCryptPasswordEncoder(strength, random)));
+        this.delegate.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder(strength, random));
+    }
+
+    public static CalibratedPasswordEncoder calibrate(Duration targetLatency, int minStrength, int maxStrength) {
+        int strength = calibrateStrength(targetLatency, minStrength, maxStrength);
+        log.info("BCrypt strength calibrated to {} for a target latency of {} ms", strength, targetLatency.toMillis());
+        return new CalibratedPasswordEncoder(strength);
+    }
+
+    static int calibrateStrength(Duration targetLatency, int minStrength, int maxStrength) {
+        long targetNanos = targetLatency.toNanos();
+        measure(4);
+        int strength = minStrength;
+        long elapsed = measure(strength);
+        while (strength < maxStrength && elapsed * 2 <= targetNanos) {
+            strength++;
+            elapsed = measure(strength);
+        }
+        return strength;
+    }
+
+    private static long measure(int strength) {
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < CALIBRATION_ROUNDS; i++) {
+            long start = System.nanoTime();
+            BCrypt.hashpw("calibration", BCrypt.gensalt(strength));
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return delegate.encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return delegate.matches(rawPassword, encodedPassword);
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return encodedPassword != null && delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private static final class CostBandBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+        private final int strength;
+
+        private CostBandBCryptPasswordEncoder(int strength, SecureRandom random) {
+            super(strength, random);
+            this.strength = strength;
+        }
+
+        @Override
+        public boolean upgradeEncoding(String encodedPassword) {
+            if (encodedPassword == null) return false;
+            Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+            if (!matcher.find()) return true;
+            int cost = Integer.parseInt(matcher.group(1));
+            return cost < strength || cost > strength + 1;
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package local.nix.task.management.system.rest.config.security.properties;
+
+public enum AdminBootstrapMode {
+    BLOCKING,
+    DEFERRED
+}
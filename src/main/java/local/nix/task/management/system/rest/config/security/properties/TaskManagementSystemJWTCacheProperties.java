@@ -0,0 +1,27 @@
+package local.nix.task.management.system.rest.config.security.properties;
+
+import javax.validation.constraints.Positive;
+
+public class TaskManagementSystemJWTCacheProperties {
+
+    private boolean enabled;
+
+    @Positive
+    private long maxSize = 10_000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(long maxSize) {
+        this.maxSize = maxSize;
+    }
+}
@@ -3,6 +3,9 @@ package local.nix.task.management.system.rest.config.security.properties;
 
 import org.hibernate.validator.constraints.time.DurationMax;
 import org.hibernate.validator.constraints.time.DurationMin;
+import org.springframework.boot.context.properties.NestedConfigurationProperty;
+
+import javax.validation.Valid;
 import javax.validation.constraints.NotBlank;
 import java.time.Duration;
 
@@ -19,6 +22,18 @@ public class TaskManagementSystemJWTProperties {
     @DurationMin(hours = 12)
     private Duration refreshExpireIn;
 
+    @Valid
+    @NestedConfigurationProperty
+    private TaskManagementSystemJWTCacheProperties cache = new TaskManagementSystemJWTCacheProperties();
+
+    @Valid
+    @NestedConfigurationProperty
+    private TaskManagementSystemRefreshStoreProperties refreshStore = new TaskManagementSystemRefreshStoreProperties();
+
+    @Valid
+    @NestedConfigurationProperty
+    private TaskManagementSystemRefreshTokenPruneProperties prune = new TaskManagementSystemRefreshTokenPruneProperties();
+
     public String getSecret() {
         return secret;
     }
@@ -43,4 +58,28 @@ public class TaskManagementSystemJWTProperties {
         this.refreshExpireIn = refreshExpireIn;
     }
 
+    public TaskManagementSystemJWTCacheProperties getCache() {
+        return cache;
+    }
+
+    public void setCache(TaskManagementSystemJWTCacheProperties cache) {
+        this.cache = cache;
+    }
+
+    public TaskManagementSystemRefreshStoreProperties getRefreshStore() {
+        return refreshStore;
+    }
+
+    public void setRefreshStore(TaskManagementSystemRefreshStoreProperties refreshStore) {
+        this.refreshStore = refreshStore;
+    }
+
+    public TaskManagementSystemRefreshTokenPruneProperties getPrune() {
+        return prune;
+    }
+
+    public void setPrune(TaskManagementSystemRefreshTokenPruneProperties prune) {
+        this.prune = prune;
+    }
+
 }
@@ -0,0 +1,92 @@
+package local.nix.task.management.system.rest.config.security.properties;
+
+import org.hibernate.validator.constraints.time.DurationMin;
+
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+import java.time.Duration;
+
+public class TaskManagementSystemPasswordProperties {
+
+    @Positive
+    private int hashingThreads = Runtime.getRuntime().availableProcessors();
+
+    @PositiveOrZero
+    private int hashingQueueCapacity = 64;
+
+    @Positive
+    private Integer maxWaitingCallers;
+
+    @DurationMin(millis = 1)
+    private Duration targetLatency = Duration.ofMillis(100);
+
+    @Min(4)
+    @Max(31)
+    private int minStrength = 10;
+
+    @Min(4)
+    @Max(31)
+    private int maxStrength = 16;
+
+    @Min(4)
+    @Max(31)
+    private Integer strength;
+
+    public int getHashingThreads() {
+        return hashingThreads;
+    }
+
+    public void setHashingThreads(int hashingThreads) {
+        this.hashingThreads = hashingThreads;
+    }
+
+    public int getHashingQueueCapacity() {
+        return hashingQueueCapacity;
+    }
+
+    public void setHashingQueueCapacity(int hashingQueueCapacity) {
+        this.hashingQueueCapacity = hashingQueueCapacity;
+    }
+
+    public Integer getMaxWaitingCallers() {
+        return maxWaitingCallers;
+    }
+
+    public void setMaxWaitingCallers(Integer maxWaitingCallers) {
+        this.maxWaitingCallers = maxWaitingCallers;
+    }
+
+    public Duration getTargetLatency() {
+        return targetLatency;
+    }
+
+    public void setTargetLatency(Duration targetLatency) {
+        this.targetLatency = targetLatency;
+    }
+
+    public int getMinStrength() {
+        return minStrength;
+    }
+
+    public void setMinStrength(int minStrength) {
+        this.minStrength = minStrength;
+    }
+
+    public int getMaxStrength() {
+        return maxStrength;
+    }
+
+    public void setMaxStrength(int maxStrength) {
+        this.maxStrength = maxStrength;
+    }
+
+    public Integer getStrength() {
+        return strength;
+    }
+
+    public void setStrength(Integer strength) {
+        this.strength = strength;
+    }
+}
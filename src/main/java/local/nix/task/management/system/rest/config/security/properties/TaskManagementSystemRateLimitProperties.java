@@ -0,0 +1,95 @@
+package local.nix.task.management.system.rest.config.security.properties;
+
+import org.hibernate.validator.constraints.time.DurationMin;
+import org.springframework.boot.context.properties.NestedConfigurationProperty;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Positive;
+import java.time.Duration;
+
+public class TaskManagementSystemRateLimitProperties {
+
+    private boolean enabled = true;
+
+    @Positive
+    private int maxEntries = 100_000;
+
+    @DurationMin(seconds = 1)
+    private Duration sweepInterval = Duration.ofMinutes(1);
+
+    @Valid
+    @NestedConfigurationProperty
+    private TaskManagementSystemTokenBucketProperties login =
+            new TaskManagementSystemTokenBucketProperties(20, Duration.ofMinutes(1));
+
+    @Valid
+    @NestedConfigurationProperty
+    private TaskManagementSystemTokenBucketProperties loginName =
+            new TaskManagementSystemTokenBucketProperties(5, Duration.ofMinutes(1));
+
+    @Valid
+    @NestedConfigurationProperty
+    private TaskManagementSystemTokenBucketProperties refresh =
+            new TaskManagementSystemTokenBucketProperties(60, Duration.ofMinutes(1));
+
+    @Valid
+    @NestedConfigurationProperty
+    private TaskManagementSystemTokenBucketProperties signup =
+            new TaskManagementSystemTokenBucketProperties(5, Duration.ofMinutes(10));
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setMaxEntries(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public Duration getSweepInterval() {
+        return sweepInterval;
+    }
+
+    public void setSweepInterval(Duration sweepInterval) {
+        this.sweepInterval = sweepInterval;
+    }
+
+    public TaskManagementSystemTokenBucketProperties getLogin() {
+        return login;
+    }
+
+    public void setLogin(TaskManagementSystemTokenBucketProperties login) {
+        this.login = login;
+    }
+
+    public TaskManagementSystemTokenBucketProperties getLoginName() {
+        return loginName;
+    }
+
+    public void setLoginName(TaskManagementSystemTokenBucketProperties loginName) {
+        this.loginName = loginName;
+    }
+
+    public TaskManagementSystemTokenBucketProperties getRefresh() {
+        return refresh;
+    }
+
+    public void setRefresh(TaskManagementSystemTokenBucketProperties refresh) {
+        this.refresh = refresh;
+    }
+
+    public TaskManagementSystemTokenBucketProperties getSignup() {
+        return signup;
+    }
+
+    public void setSignup(TaskManagementSystemTokenBucketProperties signup) {
+        this.signup = signup;
+    }
+}
@@ -0,0 +1,70 @@
+package local.nix.task.management.system.rest.config.security.properties;
+
+import org.hibernate.validator.constraints.time.DurationMin;
+
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+import java.time.Duration;
+
+public class TaskManagementSystemRefreshStoreProperties {
+
+    @NotNull
+    private Type type = Type.DATABASE;
+
+    @NotNull
+    private Durability durability = Durability.WRITE_BEHIND;
+
+    @DurationMin(millis = 10)
+    private Duration flushInterval = Duration.ofSeconds(1);
+
+    @Positive
+    private int batchSize = 500;
+
+    public Type getType() {
+        return type;
+    }
+
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    public Durability getDurability() {
+        return durability;
+    }
+
+    public void setDurability(Durability durability) {
+        this.durability = durability;
+    }
+
+    public Duration getFlushInterval() {
+        return flushInterval;
+    }
+
+    public void setFlushInterval(Duration flushInterval) {
+        this.flushInterval = flushInterval;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public enum Type {
+        DATABASE,
+        MEMORY
+    }
+
+    public enum Durability {
+        /**
+         * Rotations are queued and flushed in batches; a crash loses at most one flush interval of rotations.
+         */
+        WRITE_BEHIND,
+        /**
+         * Every rotation is written before the response is sent; only the lookup is served from memory.
+         */
+        WRITE_THROUGH
+    }
+}
@@ -0,0 +1,41 @@
+package local.nix.task.management.system.rest.config.security.properties;
+
+import org.hibernate.validator.constraints.time.DurationMin;
+
+import javax.validation.constraints.Positive;
+import java.time.Duration;
+
+public class TaskManagementSystemRefreshTokenPruneProperties {
+
+    private boolean enabled = true;
+
+    @DurationMin(seconds = 1)
+    private Duration interval = Duration.ofHours(1);
+
+    @Positive
+    private int batchSize = 1_000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getInterval() {
+        return interval;
+    }
+
+    public void setInterval(Duration interval) {
+        this.interval = interval;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+}
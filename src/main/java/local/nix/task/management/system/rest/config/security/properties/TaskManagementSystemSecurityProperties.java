@@ -6,6 +6,7 @@ import org.springframework.validation.annotation.Validated;
 
 import javax.validation.Valid;
 import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
 import java.util.Map;
 
 @Validated
@@ -16,8 +17,19 @@ public class TaskManagementSystemSecurityProperties {
     @NestedConfigurationProperty
     private TaskManagementSystemJWTProperties jwt;
 
+    @Valid
+    @NestedConfigurationProperty
+    private TaskManagementSystemPasswordProperties password = new TaskManagementSystemPasswordProperties();
+
+    @Valid
+    @NestedConfigurationProperty
+    private TaskManagementSystemRateLimitProperties rateLimit = new TaskManagementSystemRateLimitProperties();
+
     private Map<@NotBlank String, @Valid TaskManagementSystemAdminProperties> admins;
 
+    @NotNull
+    private AdminBootstrapMode adminBootstrap = AdminBootstrapMode.BLOCKING;
+
     public TaskManagementSystemJWTProperties getJwt() {
         return jwt;
     }
@@ -26,6 +38,22 @@ public class TaskManagementSystemSecurityProperties {
         this.jwt = jwt;
     }
 
+    public TaskManagementSystemPasswordProperties getPassword() {
+        return password;
+    }
+
+    public void setPassword(TaskManagementSystemPasswordProperties password) {
+        this.password = password;
+    }
+
+    public TaskManagementSystemRateLimitProperties getRateLimit() {
+        return rateLimit;
+    }
+
+    public void setRateLimit(TaskManagementSystemRateLimitProperties rateLimit) {
+        this.rateLimit = rateLimit;
+    }
+
     public Map<String, TaskManagementSystemAdminProperties> getAdmins() {
         return admins;
     }
@@ -33,4 +61,12 @@ public class TaskManagementSystemSecurityProperties {
     public void setAdmins(Map<String, TaskManagementSystemAdminProperties> admins) {
         this.admins = admins;
     }
+
+    public AdminBootstrapMode getAdminBootstrap() {
+        return adminBootstrap;
+    }
+
+    public void setAdminBootstrap(AdminBootstrapMode adminBootstrap) {
+        this.adminBootstrap = adminBootstrap;
+    }
 }
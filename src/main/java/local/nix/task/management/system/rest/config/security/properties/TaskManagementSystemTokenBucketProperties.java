@@ -0,0 +1,42 @@
+package local.nix.task.management.system.rest.config.security.properties;
+
+import org.hibernate.validator.constraints.time.DurationMin;
+
+import javax.validation.constraints.Positive;
+import java.time.Duration;
+
+/**
+ * A bucket of {@code capacity} requests that refills evenly over {@code period}.
+ */
+public class TaskManagementSystemTokenBucketProperties {
+
+    @Positive
+    private int capacity;
+
+    @DurationMin(seconds = 1)
+    private Duration period;
+
+    public TaskManagementSystemTokenBucketProperties() {
+    }
+
+    public TaskManagementSystemTokenBucketProperties(int capacity, Duration period) {
+        this.capacity = capacity;
+        this.period = period;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public Duration getPeriod() {
+        return period;
+    }
+
+    public void setPeriod(Duration period) {
+        this.period = period;
+    }
+}
@@ -0,0 +1,84 @@
+package local.nix.task.management.system.rest.config.security.ratelimit;
+
+import local.nix.task.management.system.rest.config.security.properties.TaskManagementSystemRateLimitProperties;
+import local.nix.task.management.system.rest.config.security.properties.TaskManagementSystemSecurityProperties;
+import local.nix.task.management.system.rest.config.security.ratelimit.TokenBucketLimiter.WhenFull;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.IntervalTask;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Limiters of the unauthenticated endpoints that are expensive to serve: login and signup hash a password,
+ * refresh writes to the token store.
+ */
+@Component
+@ConditionalOnProperty(prefix = "task-management-system.security.rate-limit", name = "enabled",
+        havingValue = "true", matchIfMissing = true)
+public class RequestRateLimits implements SchedulingConfigurer {
+
+    private final TokenBucketLimiter login;
+
+    private final TokenBucketLimiter loginName;
+
+    private final TokenBucketLimiter refresh;
+
+    private final TokenBucketLimiter signup;
+
+    private final Duration sweepInterval;
+
+    public RequestRateLimits(TaskManagementSystemSecurityProperties securityProperties) {
+        TaskManagementSystemRateLimitProperties properties = securityProperties.getRateLimit();
+        int maxEntries = properties.getMaxEntries();
+        this.sweepInterval = properties.getSweepInterval();
+        this.login = new TokenBucketLimiter(properties.getLogin(), maxEntries, sweepInterval, WhenFull.REJECT);
+        // login names are chosen by the client, and a name past the cap is still limited by its address
+        this.loginName = new TokenBucketLimiter(properties.getLoginName(), maxEntries, sweepInterval, WhenFull.ADMIT);
+        this.refresh = new TokenBucketLimiter(properties.getRefresh(), maxEntries, sweepInterval, WhenFull.REJECT);
+        this.signup = new TokenBucketLimiter(properties.getSignup(), maxEntries, sweepInterval, WhenFull.REJECT);
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar registrar) {
+        long delay = sweepInterval.toMillis();
+        registrar.addFixedDelayTask(new IntervalTask(this::sweep, delay, delay));
+    }
+
+    public void sweep() {
+        login.sweep();
+        loginName.sweep();
+        refresh.sweep();
+        signup.sweep();
+    }
+
+    /**
+     * Per client address.
+     */
+    public TokenBucketLimiter getLogin() {
+        return login;
+    }
+
+    /**
+     * Per login name, whatever address the attempts come from.
+     */
+    public TokenBucketLimiter getLoginName() {
+        return loginName;
+    }
+
+    /**
+     * Per client address.
+     */
+    public TokenBucketLimiter getRefresh() {
+        return refresh;
+    }
+
+    /**
+     * Per client address.
+     */
+    public TokenBucketLimiter getSignup() {
+        return signup;
+    }
+}
@@ -0,0 +1,117 @@
+package local.nix.task.management.system.rest.config.security.ratelimit;
+
+import local.nix.task.management.system.rest.config.security.properties.TaskManagementSystemTokenBucketProperties;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets keyed by client, kept as the generic cell rate algorithm: a bucket is the single time at which
+ * it will be full again, so taking a token is one compare-and-set and a full bucket carries no state worth
+ * keeping. The map itself is a {@link ConcurrentHashMap}, which stripes its updates per bin.
+ */
+public class TokenBucketLimiter {
+
+    /**
+     * What a new key gets when the map is full and a sweep frees no room.
+     */
+    public enum WhenFull {
+        /**
+         * Wait for the next sweep: for keys the client cannot choose freely, such as its address.
+         */
+        REJECT,
+        /**
+         * Let the key through untracked: for limiters consulted only after another one let the request through,
+         * whose keys an attacker could otherwise pick to fill the map and lock everyone else out.
+         */
+        ADMIT
+    }
+
+    private final ConcurrentMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    private final long emissionInterval;
+
+    private final long burstTolerance;
+
+    private final int maxEntries;
+
+    private final long sweepInterval;
+
+    private final AtomicLong nextSweep;
+
+    private final WhenFull whenFull;
+
+    private final LongSupplier nanoTime;
+
+    /**
+     * @param sweepInterval the least time between two sweeps made when the map is full
+     */
+    public TokenBucketLimiter(TaskManagementSystemTokenBucketProperties properties, int maxEntries,
+                              Duration sweepInterval, WhenFull whenFull) {
+        this(properties, maxEntries, sweepInterval, whenFull, System::nanoTime);
+    }
+
+    TokenBucketLimiter(TaskManagementSystemTokenBucketProperties properties, int maxEntries, Duration sweepInterval,
+                       WhenFull whenFull, LongSupplier nanoTime) {
+        this.emissionInterval = properties.getPeriod().toNanos() / properties.getCapacity();
+        this.burstTolerance = emissionInterval * properties.getCapacity();
+        this.maxEntries = maxEntries;
+        this.sweepInterval = sweepInterval.toNanos();
+        this.whenFull = whenFull;
+        this.nanoTime = nanoTime;
+        this.nextSweep = new AtomicLong(nanoTime.getAsLong());
+    }
+
+    /**
+     * Takes a token from the bucket of {@code key}.
+     *
+     * @return 0 if a token was taken, otherwise the nanoseconds until one is available
+     */
+    public long tryAcquire(String key) {
+        long now = nanoTime.getAsLong();
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            // a flood of distinct keys must not grow the map without bound, so a full map turns new keys away
+            // as whenFull says until a sweep frees room; the sweep walks every bucket, so one runs per interval
+            if (buckets.size() >= maxEntries && !sweepIfDue(now)) {
+                return whenFull == WhenFull.ADMIT ? 0 : Math.max(nextSweep.get() - now, 1);
+            }
+            bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+        while (true) {
+            long fullAt = bucket.get();
+            long next = (fullAt - now > 0 ? fullAt : now) + emissionInterval;
+            long wait = next - now - burstTolerance;
+            if (wait > 0) return wait;
+            if (bucket.compareAndSet(fullAt, next)) return 0;
+        }
+    }
+
+    /**
+     * Drops the buckets that refilled completely. A token taken concurrently from a dropped bucket is lost,
+     * which only ever errs in favour of the client.
+     */
+    public int sweep() {
+        long now = nanoTime.getAsLong();
+        int before = buckets.size();
+        buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+        return before - buckets.size();
+    }
+
+    /**
+     * @return whether there is room for a new bucket
+     */
+    private boolean sweepIfDue(long now) {
+        long due = nextSweep.get();
+        if (now - due < 0 || !nextSweep.compareAndSet(due, now + sweepInterval)) return false;
+        sweep();
+        return buckets.size() < maxEntries;
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+}
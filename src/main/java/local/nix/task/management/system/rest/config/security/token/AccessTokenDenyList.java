@@ -0,0 +1,55 @@
+package local.nix.task.management.system.rest.config.security.token;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import local.nix.task.management.system.rest.config.security.properties.TaskManagementSystemSecurityProperties;
+import local.nix.task.management.system.rest.model.user.event.UserAccessRevokedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Subjects whose access was revoked, with the revocation time in epoch seconds. Access tokens of a subject
+ * issued no later than that are denied. An entry lives for one access token lifetime, after which every
+ * token it could deny has expired on its own.
+ */
+@Component
+public class AccessTokenDenyList {
+
+    private final Cache<String, Long> revokedAt;
+
+    @Autowired
+    public AccessTokenDenyList(TaskManagementSystemSecurityProperties securityProperties) {
+        this(securityProperties.getJwt().getAccessExpireIn());
+    }
+
+    public AccessTokenDenyList(Duration accessExpiration) {
+        revokedAt = Caffeine.newBuilder()
+                .expireAfterWrite(accessExpiration)
+                .build();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserAccessRevoked(UserAccessRevokedEvent event) {
+        deny(event.getUsername(), event.getRevokedAt());
+    }
+
+    public void deny(String subject, Instant revokedAt) {
+        this.revokedAt.asMap().merge(subject, revokedAt.getEpochSecond(), Math::max);
+    }
+
+    /**
+     * @param issuedAt the {@code iat} claim of the token, in epoch seconds
+     */
+    public boolean isDenied(String subject, long issuedAt) {
+        Long revokedAt = this.revokedAt.getIfPresent(subject);
+        return revokedAt != null && issuedAt <= revokedAt;
+    }
+
+    public long size() {
+        return revokedAt.estimatedSize();
+    }
+}
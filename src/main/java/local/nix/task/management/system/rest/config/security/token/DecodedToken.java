@@ -0,0 +1,80 @@
+package local.nix.task.management.system.rest.config.security.token;
+
+import local.nix.task.management.system.rest.model.user.KnownAuthority;
+
+import java.util.Set;
+
+public class DecodedToken {
+
+    private final String subject;
+
+    private final String id;
+
+    private final String family;
+
+    private final Long userId;
+
+    private final long issuedAt;
+
+    private final long expiresAt;
+
+    private final Set<KnownAuthority> authorities;
+
+    DecodedToken(String subject, String id, String family, Long userId, long issuedAt, long expiresAt,
+                 Set<KnownAuthority> authorities) {
+        this.subject = subject;
+        this.id = id;
+        this.family = family;
+        this.userId = userId;
+        this.issuedAt = issuedAt;
+        this.expiresAt = expiresAt;
+        this.authorities = authorities;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Refresh token family, {@code null} for access tokens and for refresh tokens issued before families existed.
+     */
+    public String getFamily() {
+        return family;
+    }
+
+    /**
+     * Id of the subject, {@code null} for refresh tokens and for access tokens issued before the claim existed.
+     */
+    public Long getUserId() {
+        return userId;
+    }
+
+    public long getIssuedAt() {
+        return issuedAt;
+    }
+
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    public Set<KnownAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public String toString() {
+        return "DecodedToken{" +
+                "subject='" + subject + '\'' +
+                ", id='" + id + '\'' +
+                ", family='" + family + '\'' +
+                ", userId=" + userId +
+                ", issuedAt=" + issuedAt +
+                ", expiresAt=" + expiresAt +
+                ", authorities=" + authorities +
+                '}';
+    }
+}
@@ -0,0 +1,262 @@
+package local.nix.task.management.system.rest.config.security.token;
+
+import com.auth0.jwt.exceptions.AlgorithmMismatchException;
+import com.auth0.jwt.exceptions.InvalidClaimException;
+import com.auth0.jwt.exceptions.JWTDecodeException;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.exceptions.SignatureVerificationException;
+import com.auth0.jwt.exceptions.TokenExpiredException;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import local.nix.task.management.system.rest.config.security.SecurityConstants;
+import local.nix.task.management.system.rest.config.security.properties.TaskManagementSystemSecurityProperties;
+import local.nix.task.management.system.rest.model.user.KnownAuthority;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * HS512 JWT signing and verification shared by the authorization filter and {@code JWTAuthService}.
+ * Tokens are wire-compatible with the auth0 library, but claims are written and read with
+ * Jackson's streaming API. Access tokens carry the user id and the authorities as a bitmask over
+ * {@link KnownAuthority}, so new authorities must be appended to the enum, never inserted or reordered.
+ */
+@Component
+public class JWTCodec {
+
+    private static final String MAC_ALGORITHM = "HmacSHA512";
+
+    private static final String JWT_ALGORITHM = "HS512";
+
+    private static final Base64.Encoder BASE64_ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private static final Base64.Decoder BASE64_DECODER = Base64.getUrlDecoder();
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private static final KnownAuthority[] KNOWN_AUTHORITIES = KnownAuthority.values();
+
+    private static final byte[] HEADER = encode("{\"alg\":\"HS512\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.US_ASCII));
+
+    private final ThreadLocal<Mac> mac;
+
+    private final Algorithm algorithm;
+
+    @Autowired
+    public JWTCodec(TaskManagementSystemSecurityProperties securityProperties) {
+        this(securityProperties.getJwt().getSecret());
+    }
+
+    public JWTCodec(String secret) {
+        SecretKeySpec key = new SecretKeySpec(secret.getBytes(), MAC_ALGORITHM);
+        this.mac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac instance = Mac.getInstance(MAC_ALGORITHM);
+                instance.init(key);
+                return instance;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        this.algorithm = Algorithm.HMAC512(secret.getBytes());
+    }
+
+    public String encodeAccessToken(long userId, String subject, Collection<? extends GrantedAuthority> authorities,
+                                    long issuedAtMillis, long expiresAtMillis) {
+        int authorityMask = 0;
+        for (GrantedAuthority authority : authorities) {
+            authorityMask |= 1 << KnownAuthority.valueOf(authority.getAuthority()).ordinal();
+        }
+        StringBuilder payload = new StringBuilder(128);
+        payload.append("{\"sub\":");
+        appendString(payload, subject);
+        payload.append(",\"").append(SecurityConstants.USER_ID_CLAIM).append("\":").append(userId)
+                .append(",\"").append(SecurityConstants.AUTHORITY_MASK_CLAIM).append("\":").append(authorityMask)
+                .append(",\"iat\":").append(issuedAtMillis / 1000)
+                .append(",\"exp\":").append(expiresAtMillis / 1000)
+                .append('}');
+        return sign(payload);
+    }
+
+    public String encodeRefreshToken(String subject, UUID id, UUID family, long issuedAtMillis, long expiresAtMillis) {
+        StringBuilder payload = new StringBuilder(160);
+        payload.append("{\"sub\":");
+        appendString(payload, subject);
+        payload.append(",\"jti\":\"").append(id)
+                .append("\",\"").append(SecurityConstants.FAMILY_CLAIM).append("\":\"").append(family)
+                .append("\",\"iat\":").append(issuedAtMillis / 1000)
+                .append(",\"exp\":").append(expiresAtMillis / 1000)
+                .append('}');
+        return sign(payload);
+    }
+
+    public DecodedToken decode(String token) throws JWTVerificationException {
+        int headerEnd = token.indexOf('.');
+        int payloadEnd = headerEnd < 0 ? -1 : token.indexOf('.', headerEnd + 1);
+        if (headerEnd <= 0 || payloadEnd < 0 || token.indexOf('.', payloadEnd + 1) >= 0) {
+            throw new JWTDecodeException("The token was expected to have 3 parts");
+        }
+        byte[] bytes = token.getBytes(StandardCharsets.US_ASCII);
+
+        verifySignature(bytes, payloadEnd);
+        verifyHeader(bytes, headerEnd);
+
+        DecodedToken decoded = parsePayload(BASE64_DECODER.decode(slice(bytes, headerEnd + 1, payloadEnd)));
+        long now = System.currentTimeMillis() / 1000;
+        if (decoded.getExpiresAt() != 0 && now >= decoded.getExpiresAt()) {
+            throw new TokenExpiredException("The Token has expired");
+        }
+        if (decoded.getIssuedAt() > now) {
+            throw new InvalidClaimException("The Token can't be used before its issue time");
+        }
+        return decoded;
+    }
+
+    private String sign(CharSequence payloadJson) {
+        byte[] payload = encode(payloadJson.toString().getBytes(StandardCharsets.UTF_8));
+        byte[] content = new byte[HEADER.length + 1 + payload.length];
+        System.arraycopy(HEADER, 0, content, 0, HEADER.length);
+        content[HEADER.length] = '.';
+        System.arraycopy(payload, 0, content, HEADER.length + 1, payload.length);
+
+        byte[] signature = encode(mac.get().doFinal(content));
+        byte[] token = new byte[content.length + 1 + signature.length];
+        System.arraycopy(content, 0, token, 0, content.length);
+        token[content.length] = '.';
+        System.arraycopy(signature, 0, token, content.length + 1, signature.length);
+        return new String(token, StandardCharsets.US_ASCII);
+    }
+
+    private void verifySignature(byte[] token, int contentLength) {
+        Mac instance = mac.get();
+        instance.update(token, 0, contentLength);
+        byte[] expected = encode(instance.doFinal());
+        int signatureLength = token.length - contentLength - 1;
+        int diff = expected.length ^ signatureLength;
+        for (int i = 0; i < expected.length && i < signatureLength; i++) {
+            diff |= expected[i] ^ token[contentLength + 1 + i];
+        }
+        if (diff != 0) {
+            throw new SignatureVerificationException(algorithm);
+        }
+    }
+
+    private static void verifyHeader(byte[] token, int headerEnd) {
+        if (headerEnd == HEADER.length && regionEquals(token, HEADER)) {
+            return;
+        }
+        String alg = null;
+        try (JsonParser parser = JSON_FACTORY.createParser(BASE64_DECODER.decode(slice(token, 0, headerEnd)))) {
+            expect(parser.nextToken() == JsonToken.START_OBJECT);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+                if ("alg".equals(field)) {
+                    alg = parser.getValueAsString();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            throw new JWTDecodeException("The token header is not valid JSON", e);
+        }
+        if (!JWT_ALGORITHM.equals(alg)) {
+            throw new AlgorithmMismatchException("The provided Algorithm doesn't match the one defined in the JWT's Header.");
+        }
+    }
+
+    private static DecodedToken parsePayload(byte[] payload) {
+        String subject = null;
+        String id = null;
+        String family = null;
+        Long userId = null;
+        long issuedAt = 0;
+        long expiresAt = 0;
+        Set<KnownAuthority> authorities = EnumSet.noneOf(KnownAuthority.class);
+        try (JsonParser parser = JSON_FACTORY.createParser(payload)) {
+            expect(parser.nextToken() == JsonToken.START_OBJECT);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "sub":
+                        subject = parser.getValueAsString();
+                        break;
+                    case "jti":
+                        id = parser.getValueAsString();
+                        break;
+                    case SecurityConstants.FAMILY_CLAIM:
+                        family = parser.getValueAsString();
+                        break;
+                    case SecurityConstants.USER_ID_CLAIM:
+                        userId = parser.getLongValue();
+                        break;
+                    case "iat":
+                        issuedAt = parser.getLongValue();
+                        break;
+                    case "exp":
+                        expiresAt = parser.getLongValue();
+                        break;
+                    case SecurityConstants.AUTHORITY_MASK_CLAIM:
+                        int authorityMask = parser.getIntValue();
+                        for (KnownAuthority authority : KNOWN_AUTHORITIES) {
+                            if ((authorityMask & 1 << authority.ordinal()) != 0) authorities.add(authority);
+                        }
+                        break;
+                    case SecurityConstants.AUTHORITIES_CLAIM:
+                        expect(value == JsonToken.START_ARRAY);
+                        while (parser.nextToken() == JsonToken.VALUE_STRING) {
+                            authorities.add(KnownAuthority.valueOf(parser.getText()));
+                        }
+                        break;
+                    default:
+                        parser.skipChildren();
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            throw new JWTDecodeException("The token payload is not valid", e);
+        }
+        return new DecodedToken(subject, id, family, userId, issuedAt, expiresAt, authorities);
+    }
+
+    private static void appendString(StringBuilder builder, String value) {
+        builder.append('"');
+        JsonStringEncoder.getInstance().quoteAsString(value, builder);
+        builder.append('"');
+    }
+
+    private static void expect(boolean condition) throws IOException {
+        if (!condition) throw new IOException("Unexpected JSON structure");
+    }
+
+    private static boolean regionEquals(byte[] token, byte[] expected) {
+        for (int i = 0; i < expected.length; i++) {
+            if (token[i] != expected[i]) return false;
+        }
+        return true;
+    }
+
+    private static byte[] slice(byte[] bytes, int from, int to) {
+        byte[] result = new byte[to - from];
+        System.arraycopy(bytes, from, result, 0, result.length);
+        return result;
+    }
+
+    private static byte[] encode(byte[] bytes) {
+        return BASE64_ENCODER.encode(bytes);
+    }
+}
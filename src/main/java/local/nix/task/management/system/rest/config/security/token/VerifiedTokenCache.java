@@ -0,0 +1,110 @@
+package local.nix.task.management.system.rest.config.security.token;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import local.nix.task.management.system.rest.config.security.properties.TaskManagementSystemSecurityProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Access tokens that already passed signature verification, keyed by their encoded form.
+ * Every entry expires no later than the {@code exp} claim of its token.
+ */
+@Component
+@ConditionalOnProperty(prefix = "task-management-system.security.jwt.cache", name = "enabled", havingValue = "true")
+public class VerifiedTokenCache {
+
+    private final Cache<String, VerifiedToken> cache;
+
+    @Autowired
+    public VerifiedTokenCache(TaskManagementSystemSecurityProperties securityProperties) {
+        this(securityProperties.getJwt().getCache().getMaxSize());
+    }
+
+    public VerifiedTokenCache(long maxSize) {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilTokenExpires())
+                .recordStats()
+                .build();
+    }
+
+    public VerifiedToken get(String encodedJwt) {
+        return cache.getIfPresent(encodedJwt);
+    }
+
+    public void put(String encodedJwt, UsernamePasswordAuthenticationToken authentication,
+                    long issuedAt, Instant expiresAt) {
+        if (expiresAt.isAfter(Instant.now())) {
+            cache.put(encodedJwt, new VerifiedToken(authentication, issuedAt, expiresAt.toEpochMilli()));
+        }
+    }
+
+    public long hitCount() {
+        return cache.stats().hitCount();
+    }
+
+    public long missCount() {
+        return cache.stats().missCount();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    public static final class VerifiedToken {
+
+        private final UsernamePasswordAuthenticationToken authentication;
+
+        private final long issuedAt;
+
+        private final long expiresAtMillis;
+
+        private VerifiedToken(UsernamePasswordAuthenticationToken authentication, long issuedAt, long expiresAtMillis) {
+            this.authentication = authentication;
+            this.issuedAt = issuedAt;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+
+        public UsernamePasswordAuthenticationToken getAuthentication() {
+            return authentication;
+        }
+
+        /**
+         * The {@code iat} claim of the token, in epoch seconds.
+         */
+        public long getIssuedAt() {
+            return issuedAt;
+        }
+    }
+
+    private static final class UntilTokenExpires implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+            long remainingMillis = value.expiresAtMillis - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package local.nix.task.management.system.rest.config.task;
+
+import local.nix.task.management.system.rest.config.task.properties.TaskManagementSystemTaskBulkProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(TaskManagementSystemTaskBulkProperties.class)
+public class TaskConfig {
+}
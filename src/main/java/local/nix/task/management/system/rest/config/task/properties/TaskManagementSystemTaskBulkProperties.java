@@ -0,0 +1,37 @@
+package local.nix.task.management.system.rest.config.task.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import javax.validation.constraints.Positive;
+
+@Validated
+@ConfigurationProperties(prefix = "task-management-system.tasks.bulk")
+public class TaskManagementSystemTaskBulkProperties {
+
+    @Positive
+    private int maxItems = 100_000;
+
+    /**
+     * Tasks inserted between flushes of the persistence context; best a multiple of
+     * {@code hibernate.jdbc.batch_size}.
+     */
+    @Positive
+    private int flushSize = 1000;
+
+    public int getMaxItems() {
+        return maxItems;
+    }
+
+    public void setMaxItems(int maxItems) {
+        this.maxItems = maxItems;
+    }
+
+    public int getFlushSize() {
+        return flushSize;
+    }
+
+    public void setFlushSize(int flushSize) {
+        this.flushSize = flushSize;
+    }
+}
@@ -0,0 +1,19 @@
+package local.nix.task.management.system.rest.config.web;
+
+import local.nix.task.management.system.rest.model.page.CountMode;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * Lets clients write {@code count=estimated} rather than the constant name.
+ */
+@Component
+public class StringToCountModeConverter implements Converter<String, CountMode> {
+
+    @Override
+    public CountMode convert(String source) {
+        return CountMode.valueOf(source.trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -6,6 +6,7 @@ import local.nix.task.management.system.rest.Routes;
 import local.nix.task.management.system.rest.exception.TaskManagementSystemExceptions;
 import local.nix.task.management.system.rest.exception.auth.InvalidRefreshTokenException;
 import local.nix.task.management.system.rest.model.user.security.SecurityUser;
+import local.nix.task.management.system.rest.model.user.security.TokenPrincipal;
 import local.nix.task.management.system.rest.model.user.security.request.RefreshTokenRequest;
 import local.nix.task.management.system.rest.model.user.security.request.UserLoginRequest;
 import local.nix.task.management.system.rest.model.user.security.response.AccessTokenResponse;
@@ -49,9 +50,10 @@ public class AuthController {
 
     @PostMapping(value = "/invalidate", consumes = MediaType.APPLICATION_JSON_VALUE)
     @ResponseStatus(HttpStatus.NO_CONTENT)
-    public void invalidate(@RequestBody @Valid RefreshTokenRequest request, @AuthenticationPrincipal String username) {
+    public void invalidate(@RequestBody @Valid RefreshTokenRequest request,
+                           @AuthenticationPrincipal TokenPrincipal principal) {
         try {
-            authService.invalidateToken(request.getRefreshToken(), username);
+            authService.invalidateToken(request.getRefreshToken(), principal.getUsername());
         } catch (InvalidRefreshTokenException e) {
             throw TaskManagementSystemExceptions.invalidRefreshToken(e);
         }
@@ -2,27 +2,43 @@ package local.nix.task.management.system.rest.controller;
 
 import io.swagger.v3.oas.annotations.Parameter;
 import local.nix.task.management.system.rest.Routes;
+import local.nix.task.management.system.rest.exception.TaskManagementSystemExceptions;
+import local.nix.task.management.system.rest.model.page.CountMode;
+import local.nix.task.management.system.rest.model.page.CursorPage;
 import local.nix.task.management.system.rest.model.task.request.ChangeTaskStatusRequest;
 import local.nix.task.management.system.rest.model.task.request.SaveTaskRequest;
+import local.nix.task.management.system.rest.model.task.request.TaskFilter;
+import local.nix.task.management.system.rest.model.task.response.BulkTaskResult;
 import local.nix.task.management.system.rest.model.task.response.TaskResponse;
+import local.nix.task.management.system.rest.model.user.security.TokenPrincipal;
+import local.nix.task.management.system.rest.service.BulkTaskService;
 import local.nix.task.management.system.rest.service.TaskService;
 import org.springdoc.core.converters.models.PageableAsQueryParam;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
+import java.io.InputStream;
+import java.util.List;
 
 @RestController
 @RequestMapping(Routes.TASKS)
 public class TaskController {
 
+    private static final String NDJSON = "application/x-ndjson";
+
     private final TaskService taskService;
 
-    public TaskController(TaskService taskService) {
+    private final BulkTaskService bulkTaskService;
+
+    public TaskController(TaskService taskService, BulkTaskService bulkTaskService) {
         this.taskService = taskService;
+        this.bulkTaskService = bulkTaskService;
     }
 
     @PostMapping
@@ -31,10 +47,24 @@ public class TaskController {
         return taskService.create(request);
     }
 
+    @PostMapping(path = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, NDJSON})
+    public List<BulkTaskResult> createAll(InputStream body) {
+        return bulkTaskService.create(bulkTaskService.read(body));
+    }
+
     @GetMapping
     @PageableAsQueryParam
-    public Page<TaskResponse> listTasks(@Parameter(hidden = true) Pageable pageable) {
-        return taskService.list(pageable);
+    public Slice<TaskResponse> listTasks(TaskFilter filter, @Parameter(hidden = true) Pageable pageable,
+                                         @RequestParam(defaultValue = "exact") CountMode count) {
+        return taskService.list(filter, pageable, count);
+    }
+
+    @GetMapping(params = "after")
+    public CursorPage<TaskResponse> listTasks(TaskFilter filter, @RequestParam String after,
+                                              @RequestParam(defaultValue = "20") int size,
+                                              @RequestParam(required = false) List<String> sort) {
+        if (sort != null) throw TaskManagementSystemExceptions.unsortableCursor();
+        return taskService.list(filter, after, size);
     }
 
     @PatchMapping("/{id}")
@@ -51,8 +81,8 @@ public class TaskController {
 
     @PatchMapping("/{id}/take")
     public TaskResponse changeTaskExecutorById(@PathVariable long id,
-                                               @AuthenticationPrincipal String username) {
-        return taskService.changeExecutorById(id, username);
+                                               @AuthenticationPrincipal TokenPrincipal principal) {
+        return taskService.changeExecutorById(id, principal.getId());
     }
 
     @DeleteMapping("/{id}")
@@ -63,7 +93,14 @@ public class TaskController {
 
     @GetMapping("/search")
     @PageableAsQueryParam
-    public Page<TaskResponse> search(@RequestParam String keyword, @Parameter(hidden = true) Pageable pageable) {
-        return taskService.search(keyword, pageable);
+    public Slice<TaskResponse> search(@RequestParam String keyword, @Parameter(hidden = true) Pageable pageable,
+                                      @RequestParam(defaultValue = "exact") CountMode count) {
+        return taskService.search(keyword, pageable, count);
+    }
+
+    @GetMapping(path = "/search", params = "after")
+    public CursorPage<TaskResponse> search(@RequestParam String keyword, @RequestParam String after,
+                                           @RequestParam(defaultValue = "20") int size) {
+        return taskService.search(keyword, after, size);
     }
 }
@@ -3,16 +3,22 @@ package local.nix.task.management.system.rest.controller;
 import io.swagger.v3.oas.annotations.Parameter;
 import local.nix.task.management.system.rest.Routes;
 import local.nix.task.management.system.rest.exception.TaskManagementSystemExceptions;
+import local.nix.task.management.system.rest.model.page.CountMode;
+import local.nix.task.management.system.rest.model.page.CursorPage;
+import local.nix.task.management.system.rest.model.task.request.TaskFilter;
 import local.nix.task.management.system.rest.model.task.response.TaskResponse;
+import local.nix.task.management.system.rest.model.user.KnownAuthority;
 import local.nix.task.management.system.rest.model.user.request.ChangeUserPasswordRequest;
 import local.nix.task.management.system.rest.model.user.request.ChangeUserStatusRequest;
 import local.nix.task.management.system.rest.model.user.request.MergeUserRequest;
 import local.nix.task.management.system.rest.model.user.request.SaveUserRequest;
 import local.nix.task.management.system.rest.model.user.response.UserResponse;
+import local.nix.task.management.system.rest.model.user.security.TokenPrincipal;
+import local.nix.task.management.system.rest.service.TaskService;
 import local.nix.task.management.system.rest.service.UserService;
 import org.springdoc.core.converters.models.PageableAsQueryParam;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
@@ -26,8 +32,11 @@ public class UserController {
 
     private final UserService userService;
 
-    public UserController(UserService userService) {
+    private final TaskService taskService;
+
+    public UserController(UserService userService, TaskService taskService) {
         this.userService = userService;
+        this.taskService = taskService;
     }
 
     @PostMapping
@@ -38,35 +47,39 @@ public class UserController {
     }
 
     @GetMapping("/me")
-    public UserResponse getCurrentUser(@AuthenticationPrincipal String username) {
-        return userService.findByUsername(username).orElseThrow(() -> TaskManagementSystemExceptions.userNotFound(username));
+    public UserResponse getCurrentUser(@AuthenticationPrincipal TokenPrincipal principal) {
+        return userService.findById(principal.getId())
+                .orElseThrow(() -> TaskManagementSystemExceptions.userNotFound(principal.getUsername()));
     }
 
     @PatchMapping("/me")
-    public UserResponse mergeCurrentUser(@AuthenticationPrincipal String username,
+    public UserResponse mergeCurrentUser(@AuthenticationPrincipal TokenPrincipal principal,
                                          @RequestBody @Valid MergeUserRequest request) {
-        return userService.mergeByUsername(username, request);
+        return userService.mergeById(principal.getId(), request);
     }
 
     @PatchMapping("/me/password")
-    public UserResponse changeCurrentUserPassword(@AuthenticationPrincipal String username,
+    public UserResponse changeCurrentUserPassword(@AuthenticationPrincipal TokenPrincipal principal,
                                                   @RequestBody @Valid ChangeUserPasswordRequest request) {
-        return userService.changePasswordByUsername(username, request);
+        return userService.changePasswordById(principal.getId(), request);
     }
 
     @DeleteMapping("/me")
     @ResponseStatus(HttpStatus.NO_CONTENT)
-    public void deleteCurrentUser(@AuthenticationPrincipal String username) {
-        userService.deleteByUsername(username);
+    public void deleteCurrentUser(@AuthenticationPrincipal TokenPrincipal principal) {
+        userService.deleteById(principal.getId());
     }
 
     @GetMapping("/me/tasks")
     @PageableAsQueryParam
-    public Page<TaskResponse> getTasksByCurrentUser(
-            @AuthenticationPrincipal String username,
-            @Parameter(hidden = true) Pageable pageable
+    public Slice<TaskResponse> getTasksByCurrentUser(
+            @AuthenticationPrincipal TokenPrincipal principal,
+            TaskFilter filter,
+            @Parameter(hidden = true) Pageable pageable,
+            @RequestParam(defaultValue = "exact") CountMode count
     ) {
-        return userService.getUserTasks(username, pageable);
+        return taskService.getUserTasks(principal.getId(), principal.hasAuthority(KnownAuthority.ROLE_ADMIN), filter,
+                pageable, count);
     }
 
     @GetMapping("/{id}")
@@ -76,8 +89,15 @@ public class UserController {
 
     @GetMapping
     @PageableAsQueryParam
-    public Page<UserResponse> listUsers(@Parameter(hidden = true) Pageable pageable) {
-        return userService.list(pageable);
+    public Slice<UserResponse> listUsers(@Parameter(hidden = true) Pageable pageable,
+                                         @RequestParam(defaultValue = "exact") CountMode count) {
+        return userService.list(pageable, count);
+    }
+
+    @GetMapping(params = "after")
+    public CursorPage<UserResponse> listUsers(@RequestParam String after,
+                                              @RequestParam(defaultValue = "20") int size) {
+        return userService.list(after, size);
     }
 
     @PostMapping("/admins")
@@ -114,8 +134,15 @@ public class UserController {
     @GetMapping("/search")
     @PageableAsQueryParam
     @ResponseBody
-    public Page<String> search(HttpServletRequest request, @Parameter(hidden = true) Pageable pageable) {
-        return userService.search(request.getParameter("term"), pageable);
+    public Slice<String> search(HttpServletRequest request, @Parameter(hidden = true) Pageable pageable,
+                                @RequestParam(defaultValue = "exact") CountMode count) {
+        return userService.search(request.getParameter("term"), pageable, count);
+    }
+
+    @GetMapping(path = "/search", params = "after")
+    public CursorPage<String> search(@RequestParam String term, @RequestParam String after,
+                                     @RequestParam(defaultValue = "20") int size) {
+        return userService.search(term, after, size);
     }
 
 }
@@ -1,9 +1,12 @@
 package local.nix.task.management.system.rest.exception;
 
 import local.nix.task.management.system.rest.exception.auth.InvalidRefreshTokenException;
+import local.nix.task.management.system.rest.exception.auth.PasswordHashingRejectedException;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
+
 public class TaskManagementSystemExceptions {
 
     private TaskManagementSystemExceptions() {
@@ -30,6 +33,11 @@ public class TaskManagementSystemExceptions {
         return new ResponseStatusException(HttpStatus.NOT_FOUND, "User with name " + name + " not found");
     }
 
+    public static ResponseStatusException ambiguousUserName(String name) {
+        return new ResponseStatusException(HttpStatus.CONFLICT,
+                "Several users are named " + name + ", the user cannot be chosen by name");
+    }
+
     public static ResponseStatusException wrongPassword() {
         return new ResponseStatusException(HttpStatus.BAD_REQUEST, "Password is incorrect");
     }
@@ -39,11 +47,48 @@ public class TaskManagementSystemExceptions {
 
     }
 
+    public static ResponseStatusException invalidTask(String message) {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, message);
+    }
+
+    public static ResponseStatusException invalidDeadline(String deadline) {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "Deadline " + deadline + " does not match yyyy-MM-dd HH:mm:ss");
+    }
+
+    public static ResponseStatusException malformedTasks(IOException cause) {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "Tasks must be a JSON array or newline-delimited JSON objects", cause);
+    }
+
+    public static ResponseStatusException tooManyTasks(int maxItems) {
+        return new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                "At most " + maxItems + " tasks can be created at once");
+    }
+
+    public static ResponseStatusException invalidCursor(String cursor) {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor " + cursor + " is invalid");
+    }
+
+    public static ResponseStatusException invalidSort(String property) {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, "Tasks cannot be sorted by " + property);
+    }
+
+    public static ResponseStatusException unsortableCursor() {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "Pages read by cursor are in order of creation and cannot be sorted");
+    }
+
     public static ResponseStatusException invalidRefreshToken(InvalidRefreshTokenException cause) {
         return new ResponseStatusException(HttpStatus.UNAUTHORIZED,
                 "Refresh token is invalid! It may have been rotated, invalidated or expired naturally", cause);
     }
 
+    public static ResponseStatusException passwordHashingUnavailable(PasswordHashingRejectedException cause) {
+        return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                "Too many password operations in progress, retry later", cause);
+    }
+
 
 
 
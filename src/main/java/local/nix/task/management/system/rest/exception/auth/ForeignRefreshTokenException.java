@@ -0,0 +1,10 @@
+package local.nix.task.management.system.rest.exception.auth;
+
+/**
+ * Thrown when a refresh token is presented by a user other than its owner.
+ */
+public class ForeignRefreshTokenException extends InvalidRefreshTokenException {
+    public ForeignRefreshTokenException() {
+        super();
+    }
+}
@@ -0,0 +1,12 @@
+package local.nix.task.management.system.rest.exception.auth;
+
+public class PasswordHashingRejectedException extends RuntimeException {
+
+    public PasswordHashingRejectedException() {
+        super("Password hashing capacity exhausted");
+    }
+
+    public PasswordHashingRejectedException(Throwable cause) {
+        super("Password hashing capacity exhausted", cause);
+    }
+}
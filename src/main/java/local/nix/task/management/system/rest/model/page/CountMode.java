@@ -0,0 +1,19 @@
+package local.nix.task.management.system.rest.model.page;
+
+/**
+ * How the total of an offset-paged listing is obtained.
+ */
+public enum CountMode {
+    /**
+     * A count query, run only when the page itself cannot tell the total.
+     */
+    EXACT,
+    /**
+     * Planner statistics, or a count refreshed periodically; may lag behind recent changes.
+     */
+    ESTIMATED,
+    /**
+     * No total at all: the response is a slice that only tells whether there is a next page.
+     */
+    NONE
+}
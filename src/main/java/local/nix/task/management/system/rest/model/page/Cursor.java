@@ -0,0 +1,60 @@
+package local.nix.task.management.system.rest.model.page;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position after the last item of a page: its sort key, if the listing has one besides the id, and its id
+ * as the tie-breaker. Clients only ever see it encoded.
+ */
+public final class Cursor {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final String key;
+
+    private final long id;
+
+    private Cursor(String key, long id) {
+        this.key = key;
+        this.id = id;
+    }
+
+    public static Cursor of(long id) {
+        return new Cursor(null, id);
+    }
+
+    public static Cursor of(String key, long id) {
+        return new Cursor(key, id);
+    }
+
+    /**
+     * @return the cursor, or {@code null} for an empty token, which asks for the first page
+     * @throws IllegalArgumentException if the token was not produced by {@link #encode()}
+     */
+    public static Cursor decode(String token) {
+        if (token == null || token.isEmpty()) return null;
+        String decoded = new String(DECODER.decode(token), StandardCharsets.UTF_8);
+        int separator = decoded.indexOf(':');
+        if (separator < 0) return new Cursor(null, Long.parseLong(decoded));
+        return new Cursor(decoded.substring(separator + 1), Long.parseLong(decoded.substring(0, separator)));
+    }
+
+    public String encode() {
+        String decoded = key == null ? String.valueOf(id) : id + ":" + key;
+        return ENCODER.encodeToString(decoded.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the sort key, or {@code null} if the listing is ordered by id alone
+     */
+    public String getKey() {
+        return key;
+    }
+
+    public long getId() {
+        return id;
+    }
+}
@@ -0,0 +1,53 @@
+package local.nix.task.management.system.rest.model.page;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * A page of a listing read by keyset: {@code next} is the cursor of the following page, or {@code null}
+ * on the last one.
+ */
+public class CursorPage<T> {
+
+    public static final int DEFAULT_SIZE = 20;
+
+    public static final int MAX_SIZE = 2000;
+
+    private final List<T> items;
+
+    private final String next;
+
+    public CursorPage(List<T> items, String next) {
+        this.items = items;
+        this.next = next;
+    }
+
+    /**
+     * @param rows up to {@code size + 1} rows; the extra one only tells that there is a next page
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int size, Function<T, Cursor> cursorOf) {
+        if (rows.size() <= size) return new CursorPage<>(rows, null);
+        List<T> items = rows.subList(0, size);
+        return new CursorPage<>(items, cursorOf.apply(items.get(size - 1)).encode());
+    }
+
+    /**
+     * Same bounds as Spring Data applies to {@code Pageable} sizes.
+     */
+    public static int clampSize(int size) {
+        return size < 1 ? DEFAULT_SIZE : Math.min(size, MAX_SIZE);
+    }
+
+    public <R> CursorPage<R> map(Function<? super T, ? extends R> mapper) {
+        return new CursorPage<>(items.stream().map(mapper).collect(Collectors.toList()), next);
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public String getNext() {
+        return next;
+    }
+}
@@ -0,0 +1,14 @@
+package local.nix.task.management.system.rest.model.task.event;
+
+public class TaskDeletedEvent {
+
+    private final long taskId;
+
+    public TaskDeletedEvent(long taskId) {
+        this.taskId = taskId;
+    }
+
+    public long getTaskId() {
+        return taskId;
+    }
+}
@@ -0,0 +1,34 @@
+package local.nix.task.management.system.rest.model.task.event;
+
+/**
+ * Published when a task is created or its text or executor changes.
+ */
+public class TaskSavedEvent {
+
+    private final long taskId;
+
+    private final String text;
+
+    private final String executorName;
+
+    public TaskSavedEvent(long taskId, String text, String executorName) {
+        this.taskId = taskId;
+        this.text = text;
+        this.executorName = executorName;
+    }
+
+    public long getTaskId() {
+        return taskId;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * @return the name of the executor, or {@code null} for an unassigned task
+     */
+    public String getExecutorName() {
+        return executorName;
+    }
+}
@@ -0,0 +1,102 @@
+package local.nix.task.management.system.rest.model.task.request;
+
+import local.nix.task.management.system.rest.model.task.TaskStatus;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Query parameters narrowing a task listing. Unset fields do not filter; bounds are inclusive.
+ */
+public class TaskFilter {
+
+    private Set<TaskStatus> status;
+
+    private Long executorId;
+
+    private Long reviewerId;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime deadlineFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime deadlineTo;
+
+    private Instant createdFrom;
+
+    private Instant createdTo;
+
+    public boolean isEmpty() {
+        return (status == null || status.isEmpty()) && executorId == null && reviewerId == null
+                && deadlineFrom == null && deadlineTo == null && createdFrom == null && createdTo == null;
+    }
+
+    public Set<TaskStatus> getStatus() {
+        return status;
+    }
+
+    public void setStatus(Set<TaskStatus> status) {
+        this.status = status;
+    }
+
+    public Long getExecutorId() {
+        return executorId;
+    }
+
+    public void setExecutorId(Long executorId) {
+        this.executorId = executorId;
+    }
+
+    public Long getReviewerId() {
+        return reviewerId;
+    }
+
+    public void setReviewerId(Long reviewerId) {
+        this.reviewerId = reviewerId;
+    }
+
+    public LocalDateTime getDeadlineFrom() {
+        return deadlineFrom;
+    }
+
+    public void setDeadlineFrom(LocalDateTime deadlineFrom) {
+        this.deadlineFrom = deadlineFrom;
+    }
+
+    public LocalDateTime getDeadlineTo() {
+        return deadlineTo;
+    }
+
+    public void setDeadlineTo(LocalDateTime deadlineTo) {
+        this.deadlineTo = deadlineTo;
+    }
+
+    public Instant getCreatedFrom() {
+        return createdFrom;
+    }
+
+    public void setCreatedFrom(Instant createdFrom) {
+        this.createdFrom = createdFrom;
+    }
+
+    public Instant getCreatedTo() {
+        return createdTo;
+    }
+
+    public void setCreatedTo(Instant createdTo) {
+        this.createdTo = createdTo;
+    }
+
+    @Override
+    public String toString() {
+        return "status=" + status
+                + ";executorId=" + executorId
+                + ";reviewerId=" + reviewerId
+                + ";deadlineFrom=" + deadlineFrom
+                + ";deadlineTo=" + deadlineTo
+                + ";createdFrom=" + createdFrom
+                + ";createdTo=" + createdTo;
+    }
+}
@@ -0,0 +1,51 @@
+package local.nix.task.management.system.rest.model.task.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * The outcome of one item of a bulk request, with the status the item would have had as a single request.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkTaskResult {
+
+    private final int index;
+
+    private final int status;
+
+    private final Long id;
+
+    private final String error;
+
+    private BulkTaskResult(int index, int status, Long id, String error) {
+        this.index = index;
+        this.status = status;
+        this.id = id;
+        this.error = error;
+    }
+
+    public static BulkTaskResult created(int index, long id) {
+        return new BulkTaskResult(index, HttpStatus.CREATED.value(), id, null);
+    }
+
+    public static BulkTaskResult rejected(int index, ResponseStatusException e) {
+        return new BulkTaskResult(index, e.getStatus().value(), null, e.getReason());
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
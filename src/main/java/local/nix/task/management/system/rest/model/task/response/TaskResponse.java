@@ -23,6 +23,20 @@ public class TaskResponse {
     @JsonFormat(shape = JsonFormat.Shape.STRING)
     private Instant createdAt;
 
+    public TaskResponse() {
+    }
+
+    public TaskResponse(Long id, String text, LocalDateTime deadline, String executor, String reviewer,
+                        TaskStatus taskStatus, Instant createdAt) {
+        this.id = id;
+        this.text = text;
+        this.deadline = deadline;
+        this.executor = executor;
+        this.reviewer = reviewer;
+        this.taskStatus = taskStatus;
+        this.createdAt = createdAt;
+    }
+
     public static TaskResponse fromTask(Task task) {
         TaskResponse response = new TaskResponse();
         response.id = task.getId();
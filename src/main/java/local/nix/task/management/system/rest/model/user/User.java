@@ -3,6 +3,7 @@ package local.nix.task.management.system.rest.model.user;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import local.nix.task.management.system.rest.model.task.Task;
 import local.nix.task.management.system.rest.model.user.security.token.RefreshToken;
+import org.hibernate.annotations.BatchSize;
 
 import javax.persistence.*;
 import java.time.Instant;
@@ -30,6 +31,7 @@ public class User {
     private String name;
 
     @ManyToMany
+    @BatchSize(size = 2000)
     @JoinTable(name = "user_authorities",
             joinColumns = @JoinColumn(name = "user_id", referencedColumnName = "id"),
             inverseJoinColumns = @JoinColumn(name = "authority_id", referencedColumnName = "id"))
@@ -0,0 +1,27 @@
+package local.nix.task.management.system.rest.model.user.event;
+
+import java.time.Instant;
+
+/**
+ * Published when a user loses access: suspension, deletion or a username change.
+ * Tokens issued to {@code username} before {@code revokedAt} must no longer be honoured.
+ */
+public class UserAccessRevokedEvent {
+
+    private final String username;
+
+    private final Instant revokedAt;
+
+    public UserAccessRevokedEvent(String username, Instant revokedAt) {
+        this.username = username;
+        this.revokedAt = revokedAt;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public Instant getRevokedAt() {
+        return revokedAt;
+    }
+}
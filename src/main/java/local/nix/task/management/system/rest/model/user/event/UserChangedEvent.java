@@ -0,0 +1,25 @@
+package local.nix.task.management.system.rest.model.user.event;
+
+/**
+ * Published when a user is created or deleted, or any stored attribute of a user changes, including its
+ * authorities.
+ */
+public class UserChangedEvent {
+
+    private final long userId;
+
+    private final String name;
+
+    public UserChangedEvent(long userId, String name) {
+        this.userId = userId;
+        this.name = name;
+    }
+
+    public long getUserId() {
+        return userId;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
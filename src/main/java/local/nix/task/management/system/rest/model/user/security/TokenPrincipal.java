@@ -0,0 +1,51 @@
+package local.nix.task.management.system.rest.model.user.security;
+
+import local.nix.task.management.system.rest.model.user.KnownAuthority;
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * The authenticated user of a request, as described by its access token.
+ */
+public class TokenPrincipal implements AuthenticatedPrincipal {
+
+    private final long id;
+
+    private final String username;
+
+    private final Set<KnownAuthority> authorities;
+
+    public TokenPrincipal(long id, String username, Set<KnownAuthority> authorities) {
+        this.id = id;
+        this.username = username;
+        this.authorities = Collections.unmodifiableSet(authorities);
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public Set<KnownAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    public boolean hasAuthority(KnownAuthority authority) {
+        return authorities.contains(authority);
+    }
+
+    @Override
+    public String getName() {
+        return username;
+    }
+
+    @Override
+    public String toString() {
+        return username;
+    }
+}
@@ -1,19 +1,24 @@
 package local.nix.task.management.system.rest.model.user.security.token;
 
 import local.nix.task.management.system.rest.model.user.User;
+import org.springframework.data.domain.Persistable;
 
 import javax.persistence.*;
 import java.time.OffsetDateTime;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.UUID;
 
+/**
+ * The live member of a refresh token family. A family starts at login; every rotation replaces
+ * {@code value} in place, so a family is a single row no matter how often it was rotated.
+ */
 @Entity
 @Table(name = "refresh_token")
-public class RefreshToken {
+public class RefreshToken implements Persistable<UUID> {
 
     @Id
-    @GeneratedValue
+    private UUID family;
+
+    @Column(name = "value", nullable = false, unique = true)
     private UUID value;
 
     @ManyToOne(optional = false)
@@ -26,13 +31,16 @@ public class RefreshToken {
     @Column(name = "expire_at", nullable = false)
     private OffsetDateTime expireAt;
 
-    @OneToMany(mappedBy = "next")
-    private List<RefreshToken> previous = new ArrayList<>();
+    @Transient
+    private boolean persisted;
 
-    @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "next")
-    @Access(AccessType.PROPERTY)
-    private RefreshToken next;
+    public UUID getFamily() {
+        return family;
+    }
+
+    public void setFamily(UUID family) {
+        this.family = family;
+    }
 
     public UUID getValue() {
         return value;
@@ -66,17 +74,20 @@ public class RefreshToken {
         this.expireAt = expireAt;
     }
 
-    public RefreshToken getNext() {
-        return next;
+    @Override
+    public UUID getId() {
+        return family;
     }
 
-    public List<RefreshToken> getPrevious() {
-        return previous;
+    @Override
+    public boolean isNew() {
+        return !persisted;
     }
 
-    public void setNext(RefreshToken next) {
-        this.next = next;
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        persisted = true;
     }
 
 }
-
@@ -0,0 +1,68 @@
+package local.nix.task.management.system.rest.model.user.security.token;
+
+import local.nix.task.management.system.rest.model.user.KnownAuthority;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * A refresh token as handed out to a client, together with the owner data needed to sign the token pair.
+ */
+public class RefreshTokenGrant {
+
+    private final UUID family;
+
+    private final UUID value;
+
+    private final long userId;
+
+    private final String username;
+
+    private final Set<KnownAuthority> authorities;
+
+    private final Instant issuedAt;
+
+    private final Instant expireAt;
+
+    public RefreshTokenGrant(UUID family, UUID value, long userId, String username,
+                             Collection<KnownAuthority> authorities, Instant issuedAt, Instant expireAt) {
+        this.family = family;
+        this.value = value;
+        this.userId = userId;
+        this.username = username;
+        this.authorities = authorities.isEmpty() ? EnumSet.noneOf(KnownAuthority.class) : EnumSet.copyOf(authorities);
+        this.issuedAt = issuedAt;
+        this.expireAt = expireAt;
+    }
+
+    public UUID getFamily() {
+        return family;
+    }
+
+    public UUID getValue() {
+        return value;
+    }
+
+    public long getUserId() {
+        return userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public Set<KnownAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    public Instant getIssuedAt() {
+        return issuedAt;
+    }
+
+    public Instant getExpireAt() {
+        return expireAt;
+    }
+}
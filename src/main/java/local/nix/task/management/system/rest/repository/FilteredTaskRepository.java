@@ -0,0 +1,28 @@
+package local.nix.task.management.system.rest.repository;
+
+import local.nix.task.management.system.rest.model.task.request.TaskFilter;
+import local.nix.task.management.system.rest.model.task.response.TaskResponse;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Task listings narrowed by a {@link TaskFilter}, built as one typed query with only the conditions that are set.
+ */
+public interface FilteredTaskRepository {
+
+    /**
+     * Reads one page, plus one row to tell whether there is a next one. Unsorted pages are in order of creation.
+     */
+    Slice<TaskResponse> findFiltered(TaskFilter filter, Pageable pageable);
+
+    long countFiltered(TaskFilter filter);
+
+    /**
+     * Reads up to {@code limit} tasks in order of creation, starting right after the task with the given creation
+     * time and id, or from the first task when {@code createdAt} is null.
+     */
+    List<TaskResponse> findFilteredAfter(TaskFilter filter, Instant createdAt, long id, int limit);
+}
@@ -0,0 +1,151 @@
+package local.nix.task.management.system.rest.repository;
+
+import local.nix.task.management.system.rest.exception.TaskManagementSystemExceptions;
+import local.nix.task.management.system.rest.model.task.Task;
+import local.nix.task.management.system.rest.model.task.request.TaskFilter;
+import local.nix.task.management.system.rest.model.task.response.TaskResponse;
+import local.nix.task.management.system.rest.model.user.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.*;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+public class FilteredTaskRepositoryImpl implements FilteredTaskRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Slice<TaskResponse> findFiltered(TaskFilter filter, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TaskResponse> query = cb.createQuery(TaskResponse.class);
+        Root<Task> task = query.from(Task.class);
+        Join<Task, User> executor = task.join("executor", JoinType.LEFT);
+        Join<Task, User> reviewer = task.join("reviewer");
+        query.select(response(cb, task, executor, reviewer))
+                .where(predicates(cb, task, filter))
+                .orderBy(orders(cb, task, executor, reviewer, pageable.getSort()));
+
+        TypedQuery<TaskResponse> typedQuery = entityManager.createQuery(query);
+        if (pageable.isUnpaged()) return new SliceImpl<>(typedQuery.getResultList());
+        List<TaskResponse> tasks = typedQuery
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+        boolean hasNext = tasks.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? tasks.subList(0, pageable.getPageSize()) : tasks, pageable, hasNext);
+    }
+
+    @Override
+    public List<TaskResponse> findFilteredAfter(TaskFilter filter, Instant createdAt, long id, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TaskResponse> query = cb.createQuery(TaskResponse.class);
+        Root<Task> task = query.from(Task.class);
+        Join<Task, User> executor = task.join("executor", JoinType.LEFT);
+        Join<Task, User> reviewer = task.join("reviewer");
+        List<Predicate> predicates = new ArrayList<>(List.of(predicates(cb, task, filter)));
+        if (createdAt != null) {
+            Path<Instant> taskCreatedAt = task.get("createdAt");
+            predicates.add(cb.or(cb.greaterThan(taskCreatedAt, createdAt),
+                    cb.and(cb.equal(taskCreatedAt, createdAt), cb.greaterThan(task.get("id"), id))));
+        }
+        query.select(response(cb, task, executor, reviewer))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.asc(task.get("createdAt")), cb.asc(task.get("id")));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public long countFiltered(TaskFilter filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Task> task = query.from(Task.class);
+        query.select(cb.count(task)).where(predicates(cb, task, filter));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static CompoundSelection<TaskResponse> response(CriteriaBuilder cb, Root<Task> task,
+                                                           Join<Task, User> executor, Join<Task, User> reviewer) {
+        return cb.construct(TaskResponse.class,
+                task.get("id"),
+                task.get("text"),
+                task.get("deadline"),
+                executor.get("name"),
+                reviewer.get("name"),
+                task.get("taskStatus"),
+                task.get("createdAt"));
+    }
+
+    private static Predicate[] predicates(CriteriaBuilder cb, Root<Task> task, TaskFilter filter) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.getStatus() != null && !filter.getStatus().isEmpty()) {
+            predicates.add(task.get("taskStatus").in(filter.getStatus()));
+        }
+        // comparing the foreign keys themselves needs no join
+        if (filter.getExecutorId() != null) {
+            predicates.add(cb.equal(task.get("executor").get("id"), filter.getExecutorId()));
+        }
+        if (filter.getReviewerId() != null) {
+            predicates.add(cb.equal(task.get("reviewer").get("id"), filter.getReviewerId()));
+        }
+        if (filter.getDeadlineFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(task.get("deadline"), filter.getDeadlineFrom()));
+        }
+        if (filter.getDeadlineTo() != null) {
+            predicates.add(cb.lessThanOrEqualTo(task.get("deadline"), filter.getDeadlineTo()));
+        }
+        if (filter.getCreatedFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(task.get("createdAt"), filter.getCreatedFrom()));
+        }
+        if (filter.getCreatedTo() != null) {
+            predicates.add(cb.lessThanOrEqualTo(task.get("createdAt"), filter.getCreatedTo()));
+        }
+        return predicates.toArray(new Predicate[0]);
+    }
+
+    /**
+     * Sorts by the properties of {@link TaskResponse}, breaking ties by id so that pages never overlap.
+     */
+    private static List<Order> orders(CriteriaBuilder cb, Root<Task> task, Join<Task, User> executor,
+                                      Join<Task, User> reviewer, Sort sort) {
+        List<Order> orders = new ArrayList<>();
+        if (sort.isUnsorted()) {
+            orders.add(cb.asc(task.get("createdAt")));
+        }
+        boolean byId = false;
+        for (Sort.Order order : sort) {
+            Expression<?> property;
+            switch (order.getProperty()) {
+                case "id":
+                    property = task.get("id");
+                    byId = true;
+                    break;
+                case "text":
+                case "deadline":
+                case "taskStatus":
+                case "createdAt":
+                    property = task.get(order.getProperty());
+                    break;
+                case "executor":
+                    property = executor.get("name");
+                    break;
+                case "reviewer":
+                    property = reviewer.get("name");
+                    break;
+                default:
+                    throw TaskManagementSystemExceptions.invalidSort(order.getProperty());
+            }
+            orders.add(order.isAscending() ? cb.asc(property) : cb.desc(property));
+        }
+        if (!byId) orders.add(cb.asc(task.get("id")));
+        return orders;
+    }
+}
@@ -14,17 +14,23 @@ import java.util.UUID;
 @Repository
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, UUID> {
 
-    @Query("select rt from RefreshToken rt inner join fetch rt.user u " +
-            "where rt.value = :value and rt.expireAt > :when and u.status = :status")
-    Optional<RefreshToken> findIfValid(UUID value, OffsetDateTime when, UserStatus status);
-
-    @Query("delete from RefreshToken rt where rt = :head or rt.next = :head")
-    @Modifying
-    void deleteChain(RefreshToken head);
-
-    @Query("update RefreshToken rt set rt.next = :newHead where rt = :oldHead or rt.next = :oldHead")
+    @Query("select distinct rt from RefreshToken rt inner join fetch rt.user u left join fetch u.authorities " +
+            "where rt.family = :family")
+    Optional<RefreshToken> findFamily(UUID family);
+
+    /**
+     * Replaces the live member of a family, provided {@code value} still is that member.
+     *
+     * @return 1 on success, 0 if the family is gone, expired, owned by an inactive user or {@code value} was reused
+     */
+    @Query("update RefreshToken rt set rt.value = :next, rt.issuedAt = :issuedAt, rt.expireAt = :expireAt " +
+            "where rt.family = :family and rt.value = :value and rt.expireAt > :issuedAt " +
+            "and exists (select u.id from User u where u = rt.user and u.status = :status)")
+    @Modifying(clearAutomatically = true)
+    int rotate(UUID family, UUID value, UUID next, OffsetDateTime issuedAt, OffsetDateTime expireAt, UserStatus status);
+
+    @Query("delete from RefreshToken rt where rt.family = :family")
     @Modifying
-    void updateChain(RefreshToken oldHead, RefreshToken newHead);
+    void deleteFamily(UUID family);
 
 }
-
@@ -1,24 +1,66 @@
 package local.nix.task.management.system.rest.repository;
 
 import local.nix.task.management.system.rest.model.task.Task;
+import local.nix.task.management.system.rest.model.task.response.TaskResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long> {
+public interface TaskRepository extends JpaRepository<Task, Long>, FilteredTaskRepository {
+
+    /**
+     * Tasks read straight into responses, with both user names joined in: one statement per page and
+     * nothing for the session to track.
+     */
+    String SELECT_RESPONSE = "SELECT new local.nix.task.management.system.rest.model.task.response.TaskResponse("
+            + "t.id, t.text, t.deadline, e.name, r.name, t.taskStatus, t.createdAt)"
+            + " FROM Task t LEFT JOIN t.executor e INNER JOIN t.reviewer r";
+
+    String MATCHES_PATTERN = "(lower(t.text) LIKE :pattern ESCAPE '!' OR lower(e.name) LIKE :pattern ESCAPE '!')";
 
     @Query(value = "delete from task where id = ?1", nativeQuery = true)
     @Modifying
     void purgeById(long id);
 
-    @Query(value = "SELECT t FROM Task t INNER JOIN User u ON t.executor = u.id WHERE t.text LIKE '%' || :keyword || '%'"
-            + " OR u.name LIKE '%' || :keyword || '%' ")
-    Page<Task> search(@Param("keyword") String keyword, Pageable pageable);
+    @Query(value = SELECT_RESPONSE, countQuery = "SELECT count(t) FROM Task t")
+    Page<TaskResponse> findAllResponses(Pageable pageable);
+
+    @Query(SELECT_RESPONSE)
+    Slice<TaskResponse> findResponseSlice(Pageable pageable);
+
+    @Query(SELECT_RESPONSE + " WHERE t.id = :id")
+    Optional<TaskResponse> findResponseById(@Param("id") long id);
+
+    @Query(SELECT_RESPONSE + " WHERE t.id IN :ids")
+    List<TaskResponse> findResponsesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(SELECT_RESPONSE + " ORDER BY t.createdAt, t.id")
+    List<TaskResponse> findFirstResponses(Pageable pageable);
+
+    @Query(SELECT_RESPONSE + " WHERE (t.createdAt, t.id) > (:createdAt, :id) ORDER BY t.createdAt, t.id")
+    List<TaskResponse> findResponsesAfter(@Param("createdAt") Instant createdAt, @Param("id") long id,
+                                          Pageable pageable);
+
+    @Query(SELECT_RESPONSE + " WHERE " + MATCHES_PATTERN)
+    Slice<TaskResponse> searchByPattern(@Param("pattern") String pattern, Pageable pageable);
+
+    @Query("SELECT count(t) FROM Task t LEFT JOIN t.executor e WHERE " + MATCHES_PATTERN)
+    long countByPattern(@Param("pattern") String pattern);
+
+    @Query(SELECT_RESPONSE + " WHERE t.id > :id AND " + MATCHES_PATTERN + " ORDER BY t.id")
+    List<TaskResponse> searchByPatternAfter(@Param("pattern") String pattern, @Param("id") long id,
+                                            Pageable pageable);
 
 }
@@ -0,0 +1,54 @@
+package local.nix.task.management.system.rest.repository;
+
+import local.nix.task.management.system.rest.exception.TaskManagementSystemExceptions;
+import local.nix.task.management.system.rest.model.user.KnownAuthority;
+import local.nix.task.management.system.rest.model.user.UserAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * The rows of the authorities table, read once. The table only holds the seeded {@link KnownAuthority} values
+ * and never changes at runtime, so granting authorities needs no lookup: the detached entities are attached
+ * to users by id alone.
+ */
+@Component
+public class UserAuthorityRegistry {
+
+    private final UserAuthorityRepository userAuthorityRepository;
+
+    private volatile Map<KnownAuthority, UserAuthority> authorities;
+
+    public UserAuthorityRegistry(UserAuthorityRepository userAuthorityRepository) {
+        this.userAuthorityRepository = userAuthorityRepository;
+    }
+
+    public UserAuthority get(KnownAuthority value) {
+        UserAuthority authority = authorities().get(value);
+        if (authority == null) throw TaskManagementSystemExceptions.authorityNotFound(value.name());
+        return authority;
+    }
+
+    public Map<KnownAuthority, UserAuthority> getAll(Collection<KnownAuthority> values) {
+        Map<KnownAuthority, UserAuthority> result = new EnumMap<>(KnownAuthority.class);
+        for (KnownAuthority value : values) {
+            result.put(value, get(value));
+        }
+        return result;
+    }
+
+    private Map<KnownAuthority, UserAuthority> authorities() {
+        Map<KnownAuthority, UserAuthority> authorities = this.authorities;
+        if (authorities == null) {
+            // concurrent first calls may both read the table, which is harmless
+            authorities = new EnumMap<>(KnownAuthority.class);
+            for (UserAuthority authority : userAuthorityRepository.findAll()) {
+                authorities.put(authority.getValue(), authority);
+            }
+            this.authorities = authorities;
+        }
+        return authorities;
+    }
+}
@@ -4,18 +4,33 @@ import local.nix.task.management.system.rest.model.user.User;
 import local.nix.task.management.system.rest.model.user.UserStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
 
+    @EntityGraph(attributePaths = "authorities")
     Optional<User> findUserByUsername(String username);
+    @EntityGraph(attributePaths = "authorities")
+    Optional<User> findUserById(long id);
     Optional<User> findUserByName(String name);
+
+    @Query("SELECT u.id FROM User u WHERE u.name = :name")
+    List<Long> findIdsByName(@Param("name") String name, Pageable pageable);
+
+    @Query("SELECT u.id AS id, u.name AS name FROM User u WHERE u.name IN :names")
+    List<NameView> findNamesIn(@Param("names") Collection<String> names);
     boolean existsByUsername(String username);
 
     @Query(value = "delete from usr where username = ?1", nativeQuery = true)
@@ -29,9 +44,40 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT name FROM User where name like %:keyword%")
     Page<String> search(@Param("keyword") String keyword, Pageable pageable);
 
+    @Query("SELECT name FROM User where name like %:keyword%")
+    Slice<String> searchSlice(@Param("keyword") String keyword, Pageable pageable);
+
+    long countByNameContaining(String keyword);
+
+    Slice<User> findAllBy(Pageable pageable);
+
+    @Query("SELECT u.id AS id, u.name AS name FROM User u WHERE u.name LIKE %:keyword% ORDER BY u.name, u.id")
+    List<NameView> searchNames(@Param("keyword") String keyword, Pageable pageable);
+
+    @Query("SELECT u.id AS id, u.name AS name FROM User u WHERE u.name LIKE %:keyword%"
+            + " AND (u.name, u.id) > (:name, :id) ORDER BY u.name, u.id")
+    List<NameView> searchNamesAfter(@Param("keyword") String keyword, @Param("name") String name,
+                                    @Param("id") long id, Pageable pageable);
+
+    List<User> findAllByOrderByCreatedAtAscIdAsc(Pageable pageable);
+
+    @Query("SELECT u FROM User u WHERE (u.createdAt, u.id) > (:createdAt, :id)"
+            + " ORDER BY u.createdAt, u.id")
+    List<User> findAfter(@Param("createdAt") Instant createdAt, @Param("id") long id, Pageable pageable);
+
     @Query("update User u set u.status = :status where u.username = :username")
     @Modifying
+    @Transactional
     void changeStatusByUsername(String username, UserStatus status);
 
+    @Query("update User u set u.password = :password where u.id = :id")
+    @Modifying
+    void changePasswordById(long id, String password);
+
+    interface NameView {
+
+        long getId();
 
+        String getName();
+    }
 }
@@ -0,0 +1,197 @@
+package local.nix.task.management.system.rest.repository.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import local.nix.task.management.system.rest.config.cache.properties.TaskManagementSystemUserCacheProperties;
+import local.nix.task.management.system.rest.model.user.KnownAuthority;
+import local.nix.task.management.system.rest.model.user.User;
+import local.nix.task.management.system.rest.model.user.UserStatus;
+import local.nix.task.management.system.rest.model.user.event.UserAccessRevokedEvent;
+import local.nix.task.management.system.rest.model.user.event.UserChangedEvent;
+import local.nix.task.management.system.rest.repository.UserAuthorityRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Users by id, and ids by username, as read-only snapshots. Every lookup hands out a new detached {@link User},
+ * so callers may modify it freely. Users that do not exist are never cached.
+ * <p>
+ * Entries are dropped when a {@link UserChangedEvent} or {@link UserAccessRevokedEvent} commits. Every drop also
+ * bumps a generation, and a lookup only stores what it read if no drop happened since it started reading: the
+ * state it read may be the one the drop was meant to remove, such as a suspended user's old status.
+ */
+@Component
+public class UserCache implements MeterBinder {
+
+    private final UserAuthorityRegistry userAuthorityRegistry;
+
+    private final Cache<Long, CachedUser> users;
+
+    private final Cache<String, Long> ids;
+
+    /**
+     * Bumped by every drop; stores and drops hold its monitor, so a store never lands after a drop it missed.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    @Autowired
+    public UserCache(TaskManagementSystemUserCacheProperties properties, UserAuthorityRegistry userAuthorityRegistry) {
+        this(userAuthorityRegistry, properties.isEnabled() ? properties.getMaxSize() : 0,
+                properties.getExpireAfterWrite());
+    }
+
+    /**
+     * @param maxSize the bound of each of the two caches, or 0 to read every lookup through
+     */
+    public UserCache(UserAuthorityRegistry userAuthorityRegistry, long maxSize, Duration expireAfterWrite) {
+        this.userAuthorityRegistry = userAuthorityRegistry;
+        if (maxSize > 0) {
+            users = Caffeine.newBuilder()
+                    .maximumSize(maxSize)
+                    .expireAfterWrite(expireAfterWrite)
+                    .recordStats()
+                    .build();
+            ids = Caffeine.newBuilder()
+                    .maximumSize(maxSize)
+                    .expireAfterWrite(expireAfterWrite)
+                    .recordStats()
+                    .build();
+        } else {
+            users = null;
+            ids = null;
+        }
+    }
+
+    /**
+     * @param loader reads the user with its authorities
+     */
+    public Optional<User> findById(long id, Function<Long, Optional<User>> loader) {
+        if (users == null) return loader.apply(id);
+        CachedUser cached = users.getIfPresent(id);
+        if (cached != null) return Optional.of(toUser(cached));
+        long readGeneration = generation.get();
+        Optional<User> user = loader.apply(id);
+        user.ifPresent(found -> store(readGeneration, new CachedUser(found), null));
+        return user;
+    }
+
+    /**
+     * @param loader reads the user with its authorities
+     */
+    public Optional<User> findByUsername(String username, Function<String, Optional<User>> loader) {
+        if (users == null) return loader.apply(username);
+        Long id = ids.getIfPresent(username);
+        if (id != null) {
+            CachedUser cached = users.getIfPresent(id);
+            // a rename leaves the old name pointing at the id until its event commits
+            if (cached != null && cached.username.equals(username)) return Optional.of(toUser(cached));
+        }
+        long readGeneration = generation.get();
+        Optional<User> user = loader.apply(username);
+        user.ifPresent(found -> store(readGeneration, new CachedUser(found), username));
+        return user;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (users == null) return;
+        synchronized (generation) {
+            generation.incrementAndGet();
+            CachedUser cached = users.asMap().remove(event.getUserId());
+            if (cached != null) ids.asMap().remove(cached.username, cached.id);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserAccessRevoked(UserAccessRevokedEvent event) {
+        if (users == null) return;
+        String username = event.getUsername();
+        synchronized (generation) {
+            generation.incrementAndGet();
+            ids.invalidate(username);
+            // revocations are rare, and the user may have been cached by id alone
+            users.asMap().values().removeIf(cached -> cached.username.equals(username));
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (users == null) return;
+        CaffeineCacheMetrics.monitor(registry, users, "users");
+        CaffeineCacheMetrics.monitor(registry, ids, "user-ids");
+        Gauge.builder("cache.hit.ratio", users, cache -> cache.stats().hitRate())
+                .tag("cache", "users")
+                .register(registry);
+        Gauge.builder("cache.hit.ratio", ids, cache -> cache.stats().hitRate())
+                .tag("cache", "user-ids")
+                .register(registry);
+    }
+
+    public long size() {
+        return users == null ? 0 : users.estimatedSize();
+    }
+
+    /**
+     * @param username the name the user was looked up by, or null
+     */
+    private void store(long readGeneration, CachedUser cached, String username) {
+        synchronized (generation) {
+            if (generation.get() != readGeneration) return;
+            users.put(cached.id, cached);
+            if (username != null) ids.put(username, cached.id);
+        }
+    }
+
+    private User toUser(CachedUser cached) {
+        User user = new User();
+        user.setId(cached.id);
+        user.setUsername(cached.username);
+        user.setPassword(cached.password);
+        user.setName(cached.name);
+        user.setStatus(cached.status);
+        user.setCreatedAt(cached.createdAt);
+        user.getAuthorities().putAll(userAuthorityRegistry.getAll(cached.authorities));
+        return user;
+    }
+
+    private static final class CachedUser {
+
+        private final long id;
+
+        private final String username;
+
+        private final String password;
+
+        private final String name;
+
+        private final UserStatus status;
+
+        private final Instant createdAt;
+
+        private final Set<KnownAuthority> authorities;
+
+        private CachedUser(User user) {
+            this.id = user.getId();
+            this.username = user.getUsername();
+            this.password = user.getPassword();
+            this.name = user.getName();
+            this.status = user.getStatus();
+            this.createdAt = user.getCreatedAt();
+            this.authorities = EnumSet.noneOf(KnownAuthority.class);
+            this.authorities.addAll(user.getAuthorities().keySet());
+        }
+    }
+}
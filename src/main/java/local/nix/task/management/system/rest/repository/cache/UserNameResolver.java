@@ -0,0 +1,95 @@
+package local.nix.task.management.system.rest.repository.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import local.nix.task.management.system.rest.config.cache.properties.TaskManagementSystemUserCacheProperties;
+import local.nix.task.management.system.rest.exception.TaskManagementSystemExceptions;
+import local.nix.task.management.system.rest.model.user.event.UserChangedEvent;
+import local.nix.task.management.system.rest.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Resolves the display names that tasks refer to users by. Names are not unique, so only names held by a single
+ * user are cached, and a {@link UserChangedEvent} drops the name of the user it concerns: a new user may make a
+ * cached name ambiguous, a deleted one may leave it dangling. A name is only stored if no such event ran while it
+ * was being queried, since the query may predate the user the event is about.
+ */
+@Component
+public class UserNameResolver implements MeterBinder {
+
+    private static final PageRequest TWO = PageRequest.of(0, 2);
+
+    private final UserRepository userRepository;
+
+    private final Cache<String, Long> ids;
+
+    /**
+     * Bumped by every event; stores and drops hold its monitor, so a store never lands after a drop it missed.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    @Autowired
+    public UserNameResolver(UserRepository userRepository, TaskManagementSystemUserCacheProperties properties) {
+        this(userRepository, properties.isEnabled() ? properties.getMaxSize() : 0, properties.getExpireAfterWrite());
+    }
+
+    /**
+     * @param maxSize the bound of the cache, or 0 to query every name
+     */
+    public UserNameResolver(UserRepository userRepository, long maxSize, Duration expireAfterWrite) {
+        this.userRepository = userRepository;
+        ids = maxSize > 0
+                ? Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(expireAfterWrite).recordStats().build()
+                : null;
+    }
+
+    /**
+     * @return the id of the only user with the name
+     * @throws org.springframework.web.server.ResponseStatusException 404 if no user has the name,
+     *                                                                409 if several users have it
+     */
+    public long resolve(String name) {
+        Long id = ids == null ? null : ids.getIfPresent(name);
+        if (id != null) return id;
+        long readGeneration = generation.get();
+        List<Long> found = userRepository.findIdsByName(name, TWO);
+        if (found.isEmpty()) throw TaskManagementSystemExceptions.userWithSuchNameNotFound(name);
+        if (found.size() > 1) throw TaskManagementSystemExceptions.ambiguousUserName(name);
+        id = found.get(0);
+        if (ids != null) {
+            synchronized (generation) {
+                if (generation.get() == readGeneration) ids.put(name, id);
+            }
+        }
+        return id;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (ids == null) return;
+        synchronized (generation) {
+            generation.incrementAndGet();
+            ids.invalidate(event.getName());
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (ids == null) return;
+        CaffeineCacheMetrics.monitor(registry, ids, "user-names");
+        Gauge.builder("cache.hit.ratio", ids, cache -> cache.stats().hitRate())
+                .tag("cache", "user-names")
+                .register(registry);
+    }
+}
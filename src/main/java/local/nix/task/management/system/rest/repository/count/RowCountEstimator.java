@@ -0,0 +1,79 @@
+package local.nix.task.management.system.rest.repository.count;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import local.nix.task.management.system.rest.config.search.properties.TaskManagementSystemSearchProperties;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.sql.DatabaseMetaData;
+import java.util.function.LongSupplier;
+
+/**
+ * Totals for {@link local.nix.task.management.system.rest.model.page.CountMode#ESTIMATED}. Whole tables are
+ * estimated from the planner statistics on PostgreSQL; everything else is counted exactly at most once per
+ * {@code task-management-system.search.estimated-count-ttl}.
+ */
+@Component
+public class RowCountEstimator {
+
+    private static final String RELTUPLES = "select reltuples::bigint from pg_class where oid = to_regclass(?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final boolean postgres;
+
+    private final Cache<String, Long> counts;
+
+    public RowCountEstimator(JdbcTemplate jdbcTemplate, TaskManagementSystemSearchProperties searchProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.postgres = isPostgres(jdbcTemplate);
+        this.counts = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(searchProperties.getEstimatedCountTtl())
+                .build();
+    }
+
+    /**
+     * @param table one of our own tables, never user input
+     */
+    public long estimateRows(String table) {
+        if (postgres) {
+            Long estimate = jdbcTemplate.queryForObject(RELTUPLES, Long.class, table);
+            // a table that was never analyzed has no estimate yet
+            if (estimate != null && estimate > 0) return estimate;
+        }
+        return cachedCount(table, () -> jdbcTemplate.queryForObject("select count(*) from " + table, Long.class));
+    }
+
+    public long cachedCount(String key, LongSupplier count) {
+        return counts.get(key, k -> count.getAsLong());
+    }
+
+    /**
+     * Completes {@code slice} with an estimated total. The total is only asked for if there is a next page,
+     * and never contradicts what the slice itself shows.
+     */
+    public static <T> Page<T> toPage(Slice<T> slice, LongSupplier estimatedTotal) {
+        long seen = (slice.getPageable().isPaged() ? slice.getPageable().getOffset() : 0)
+                + slice.getNumberOfElements();
+        long total = slice.hasNext() ? Math.max(estimatedTotal.getAsLong(), seen + 1) : seen;
+        return new PageImpl<>(slice.getContent(), slice.getPageable(), total);
+    }
+
+    private static boolean isPostgres(JdbcTemplate jdbcTemplate) {
+        try {
+            String productName = (String) JdbcUtils.extractDatabaseMetaData(jdbcTemplate.getDataSource(),
+                    DatabaseMetaData::getDatabaseProductName);
+            return DatabaseDriver.fromProductName(productName) == DatabaseDriver.POSTGRESQL;
+        } catch (MetaDataAccessException e) {
+            return false;
+        }
+    }
+}
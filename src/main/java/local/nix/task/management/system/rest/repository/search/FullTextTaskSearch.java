@@ -0,0 +1,120 @@
+package local.nix.task.management.system.rest.repository.search;
+
+import local.nix.task.management.system.rest.config.search.SearchConfig;
+import local.nix.task.management.system.rest.model.task.TaskStatus;
+import local.nix.task.management.system.rest.model.task.response.TaskResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.repository.support.PageableExecutionUtils;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Search on PostgreSQL. Each branch of the union is answered by its own index: whole words by the
+ * {@code tsvector} of the text, substrings by the trigram indexes of the text and of user names, so the
+ * cost follows the number of matches rather than the size of the task table. Results are ranked by how well
+ * the text matches the words of the keyword; the sort of the pageable is not applied. Pages read by cursor are
+ * ordered by id instead, since ranking needs every match before the first one can be returned.
+ * <p>
+ * Case folding of non-Latin names relies on the database having a UTF-8 {@code LC_CTYPE}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "task-management-system.search", name = "mode", havingValue = "full-text")
+public class FullTextTaskSearch implements TaskSearch {
+
+    private static final String MATCHES = "select t.id from task t"
+            + " where t.search_vector @@ plainto_tsquery('simple', :keyword) or t.text ilike :pattern escape '!'"
+            + " union"
+            + " select t.id from task t inner join usr u on u.id = t.executor_id"
+            + " where u.name ilike :pattern escape '!'";
+
+    private static final String SELECT_RESPONSE = "select t.id, t.text, t.deadline, e.name as executor,"
+            + " r.name as reviewer, t.status, t.created_at"
+            + " from task t left join usr e on e.id = t.executor_id inner join usr r on r.id = t.reviewer_id"
+            + " where t.id in (" + MATCHES + ")";
+
+    private static final String SEARCH = SELECT_RESPONSE
+            + " order by ts_rank(t.search_vector, plainto_tsquery('simple', :keyword)) desc, t.id desc"
+            + " limit :limit offset :offset";
+
+    private static final String SEARCH_AFTER = SELECT_RESPONSE + " and t.id > :after order by t.id limit :limit";
+
+    private static final String COUNT = "select count(*) from (" + MATCHES + ") m";
+
+    private static final RowMapper<TaskResponse> RESPONSE_MAPPER = (rs, rowNum) -> new TaskResponse(
+            rs.getLong("id"),
+            rs.getString("text"),
+            rs.getObject("deadline", LocalDateTime.class),
+            rs.getString("executor"),
+            rs.getString("reviewer"),
+            TaskStatus.valueOf(rs.getString("status")),
+            rs.getObject("created_at", OffsetDateTime.class).toInstant());
+
+    private static final String SCHEMA_READY = "select exists(select 1 from pg_extension where extname = 'pg_trgm')"
+            + " and exists(select 1 from information_schema.columns"
+            + " where table_schema = current_schema() and table_name = 'task' and column_name = 'search_vector')";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * @throws IllegalStateException if the database lacks what the search needs, which happens when the objects from
+     *                               {@value SearchConfig#FULL_TEXT_LOCATION} were not migrated
+     */
+    public FullTextTaskSearch(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        Boolean ready = jdbcTemplate.getJdbcTemplate().queryForObject(SCHEMA_READY, Boolean.class);
+        if (!Boolean.TRUE.equals(ready)) {
+            throw new IllegalStateException("Full-text task search needs the pg_trgm extension and task.search_vector,"
+                    + " which are migrated from " + SearchConfig.FULL_TEXT_LOCATION + " in this search mode only");
+        }
+    }
+
+    @Override
+    public Page<TaskResponse> search(String keyword, Pageable pageable) {
+        List<TaskResponse> tasks =
+                find(keyword, pageable, pageable.isPaged() ? pageable.getPageSize() : Integer.MAX_VALUE);
+        return PageableExecutionUtils.getPage(tasks, pageable, () -> count(keyword));
+    }
+
+    @Override
+    public Slice<TaskResponse> searchSlice(String keyword, Pageable pageable) {
+        if (pageable.isUnpaged()) return new SliceImpl<>(find(keyword, pageable, Integer.MAX_VALUE));
+        List<TaskResponse> tasks = find(keyword, pageable, pageable.getPageSize() + 1);
+        boolean hasNext = tasks.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? tasks.subList(0, pageable.getPageSize()) : tasks, pageable, hasNext);
+    }
+
+    @Override
+    public long count(String keyword) {
+        Long count = jdbcTemplate.queryForObject(COUNT, parameters(keyword), Long.class);
+        return count == null ? 0 : count;
+    }
+
+    @Override
+    public List<TaskResponse> searchAfter(String keyword, long afterId, int limit) {
+        return jdbcTemplate.query(SEARCH_AFTER, parameters(keyword)
+                .addValue("after", afterId)
+                .addValue("limit", limit), RESPONSE_MAPPER);
+    }
+
+    private List<TaskResponse> find(String keyword, Pageable pageable, int limit) {
+        return jdbcTemplate.query(SEARCH, parameters(keyword)
+                .addValue("limit", limit)
+                .addValue("offset", pageable.isPaged() ? pageable.getOffset() : 0L), RESPONSE_MAPPER);
+    }
+
+    private static MapSqlParameterSource parameters(String keyword) {
+        return new MapSqlParameterSource()
+                .addValue("keyword", keyword)
+                .addValue("pattern", TaskSearch.containsPattern(keyword));
+    }
+}
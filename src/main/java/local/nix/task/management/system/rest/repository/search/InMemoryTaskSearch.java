@@ -0,0 +1,132 @@
+package local.nix.task.management.system.rest.repository.search;
+
+import local.nix.task.management.system.rest.model.task.event.TaskDeletedEvent;
+import local.nix.task.management.system.rest.model.task.event.TaskSavedEvent;
+import local.nix.task.management.system.rest.model.task.response.TaskResponse;
+import local.nix.task.management.system.rest.repository.TaskRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StopWatch;
+
+import javax.annotation.PostConstruct;
+import javax.sql.DataSource;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Search for databases without text search extensions. Task text and executor names are kept in a
+ * {@link TrigramIndex}, filled from the task table at startup and updated by {@link TaskSavedEvent} and
+ * {@link TaskDeletedEvent} once their transaction commits. Only the tasks of the requested page are loaded;
+ * results are ordered by id and the sort of the pageable is not applied.
+ * <p>
+ * Renaming a user does not reindex the tasks they execute until those tasks are saved again.
+ */
+@Component
+@ConditionalOnProperty(prefix = "task-management-system.search", name = "mode", havingValue = "memory")
+public class InMemoryTaskSearch implements TaskSearch {
+
+    private static final Logger log = LoggerFactory.getLogger(InMemoryTaskSearch.class);
+
+    private static final String SELECT_DOCUMENTS =
+            "select t.id, t.text, u.name from task t left join usr u on u.id = t.executor_id";
+
+    private static final int FETCH_SIZE = 1000;
+
+    private final TrigramIndex index = new TrigramIndex();
+
+    private final TaskRepository taskRepository;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public InMemoryTaskSearch(TaskRepository taskRepository, DataSource dataSource,
+                              PlatformTransactionManager transactionManager) {
+        this.taskRepository = taskRepository;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        // PostgreSQL only streams with a fetch size inside a transaction
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    @PostConstruct
+    void build() {
+        StopWatch stopWatch = new StopWatch();
+        stopWatch.start();
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(SELECT_DOCUMENTS,
+                (RowCallbackHandler) rs -> index.put(rs.getLong(1), document(rs.getString(2), rs.getString(3)))));
+        stopWatch.stop();
+        log.info("Indexed {} tasks for search in {} ms", index.size(), stopWatch.getTotalTimeMillis());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskSaved(TaskSavedEvent event) {
+        index.put(event.getTaskId(), document(event.getText(), event.getExecutorName()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskDeleted(TaskDeletedEvent event) {
+        index.remove(event.getTaskId());
+    }
+
+    @Override
+    public Page<TaskResponse> search(String keyword, Pageable pageable) {
+        long[] ids = index.search(keyword);
+        int from = pageable.isPaged() ? (int) Math.min(pageable.getOffset(), ids.length) : 0;
+        int to = pageable.isPaged() ? Math.min(from + pageable.getPageSize(), ids.length) : ids.length;
+        return new PageImpl<>(load(ids, from, to), pageable, ids.length);
+    }
+
+    @Override
+    public Slice<TaskResponse> searchSlice(String keyword, Pageable pageable) {
+        Page<TaskResponse> page = search(keyword, pageable);
+        return new SliceImpl<>(page.getContent(), pageable, page.hasNext());
+    }
+
+    @Override
+    public long count(String keyword) {
+        return index.search(keyword).length;
+    }
+
+    @Override
+    public List<TaskResponse> searchAfter(String keyword, long afterId, int limit) {
+        long[] ids = index.search(keyword);
+        int from = Arrays.binarySearch(ids, afterId);
+        from = from >= 0 ? from + 1 : -from - 1;
+        return load(ids, from, (int) Math.min((long) from + limit, ids.length));
+    }
+
+    private List<TaskResponse> load(long[] ids, int from, int to) {
+        List<Long> pageIds = Arrays.stream(ids, from, to).boxed().collect(Collectors.toList());
+        Map<Long, TaskResponse> tasks = taskRepository.findResponsesByIdIn(pageIds).stream()
+                .collect(Collectors.toMap(TaskResponse::getId, Function.identity()));
+        return pageIds.stream()
+                .map(tasks::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Text and executor name, separated by a character no keyword contains so that no match spans both.
+     */
+    private static String document(String text, String executorName) {
+        return executorName == null ? text : text + '\0' + executorName;
+    }
+}
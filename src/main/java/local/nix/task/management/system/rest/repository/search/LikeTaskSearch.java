@@ -0,0 +1,48 @@
+package local.nix.task.management.system.rest.repository.search;
+
+import local.nix.task.management.system.rest.model.task.response.TaskResponse;
+import local.nix.task.management.system.rest.repository.TaskRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.repository.support.PageableExecutionUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(prefix = "task-management-system.search", name = "mode",
+        havingValue = "like", matchIfMissing = true)
+public class LikeTaskSearch implements TaskSearch {
+
+    private final TaskRepository taskRepository;
+
+    public LikeTaskSearch(TaskRepository taskRepository) {
+        this.taskRepository = taskRepository;
+    }
+
+    @Override
+    public Page<TaskResponse> search(String keyword, Pageable pageable) {
+        String pattern = TaskSearch.containsPattern(keyword);
+        return PageableExecutionUtils.getPage(taskRepository.searchByPattern(pattern, pageable).getContent(),
+                pageable, () -> taskRepository.countByPattern(pattern));
+    }
+
+    @Override
+    public Slice<TaskResponse> searchSlice(String keyword, Pageable pageable) {
+        return taskRepository.searchByPattern(TaskSearch.containsPattern(keyword), pageable);
+    }
+
+    @Override
+    public long count(String keyword) {
+        return taskRepository.countByPattern(TaskSearch.containsPattern(keyword));
+    }
+
+    @Override
+    public List<TaskResponse> searchAfter(String keyword, long afterId, int limit) {
+        return taskRepository.searchByPatternAfter(TaskSearch.containsPattern(keyword), afterId,
+                PageRequest.of(0, limit));
+    }
+}
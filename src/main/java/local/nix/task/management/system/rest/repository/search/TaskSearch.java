@@ -0,0 +1,35 @@
+package local.nix.task.management.system.rest.repository.search;
+
+import local.nix.task.management.system.rest.model.task.response.TaskResponse;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Finds tasks whose text or executor name contains a keyword, ignoring case. Unassigned tasks are matched
+ * by their text. The total is only counted when the page itself cannot tell it.
+ */
+public interface TaskSearch {
+
+    Page<TaskResponse> search(String keyword, Pageable pageable);
+
+    Slice<TaskResponse> searchSlice(String keyword, Pageable pageable);
+
+    long count(String keyword);
+
+    /**
+     * @return up to {@code limit} matching tasks with ids greater than {@code afterId}, ordered by id
+     */
+    List<TaskResponse> searchAfter(String keyword, long afterId, int limit);
+
+    static String containsPattern(String keyword) {
+        String escaped = keyword.toLowerCase(Locale.ROOT)
+                .replace("!", "!!")
+                .replace("%", "!%")
+                .replace("_", "!_");
+        return "%" + escaped + "%";
+    }
+}
@@ -0,0 +1,150 @@
+package local.nix.task.management.system.rest.repository.search;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Case-insensitive substring index over documents keyed by id. Every three consecutive characters of a
+ * document map to a sorted array of the ids containing them; a query intersects the arrays of its own
+ * trigrams and checks the few survivors against the document, so it never looks at documents that cannot
+ * match. Queries shorter than a trigram fall back to checking every document.
+ */
+class TrigramIndex {
+
+    private static final int N = 3;
+
+    private final Map<Long, Postings> postings = new HashMap<>();
+
+    private final Map<Long, String> documents = new HashMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    void put(long id, String document) {
+        String normalized = document.toLowerCase(Locale.ROOT);
+        lock.writeLock().lock();
+        try {
+            String previous = documents.put(id, normalized);
+            if (normalized.equals(previous)) return;
+            if (previous != null) removeTrigrams(id, previous);
+            for (long trigram : trigrams(normalized)) {
+                postings.computeIfAbsent(trigram, t -> new Postings()).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            String previous = documents.remove(id);
+            if (previous != null) removeTrigrams(id, previous);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return the ids of the documents containing {@code query}, ascending
+     */
+    long[] search(String query) {
+        String normalized = query.toLowerCase(Locale.ROOT);
+        lock.readLock().lock();
+        try {
+            if (normalized.length() < N) return scan(normalized);
+
+            long[] trigrams = trigrams(normalized);
+            Postings[] lists = new Postings[trigrams.length];
+            for (int i = 0; i < trigrams.length; i++) {
+                lists[i] = postings.get(trigrams[i]);
+                if (lists[i] == null) return new long[0];
+            }
+            Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+
+            long[] matches = new long[lists[0].size];
+            int count = 0;
+            candidates:
+            for (int i = 0; i < lists[0].size; i++) {
+                long id = lists[0].ids[i];
+                for (int j = 1; j < lists.length; j++) {
+                    if (!lists[j].contains(id)) continue candidates;
+                }
+                if (documents.get(id).contains(normalized)) matches[count++] = id;
+            }
+            return Arrays.copyOf(matches, count);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private long[] scan(String normalized) {
+        return documents.entrySet().stream()
+                .filter(document -> document.getValue().contains(normalized))
+                .mapToLong(Map.Entry::getKey)
+                .sorted()
+                .toArray();
+    }
+
+    private void removeTrigrams(long id, String document) {
+        for (long trigram : trigrams(document)) {
+            Postings list = postings.get(trigram);
+            if (list != null && list.remove(id) && list.size == 0) postings.remove(trigram);
+        }
+    }
+
+    /**
+     * Distinct trigrams of {@code s}, each packed into the low 48 bits of a long.
+     */
+    private static long[] trigrams(String s) {
+        if (s.length() < N) return new long[0];
+        long[] trigrams = new long[s.length() - N + 1];
+        for (int i = 0; i < trigrams.length; i++) {
+            trigrams[i] = ((long) s.charAt(i) << 32) | ((long) s.charAt(i + 1) << 16) | s.charAt(i + 2);
+        }
+        return Arrays.stream(trigrams).distinct().toArray();
+    }
+
+    private static final class Postings {
+
+        private long[] ids = new long[4];
+
+        private int size;
+
+        void add(long id) {
+            // ids of new tasks only grow, so the common case is an append
+            int index = size == 0 || ids[size - 1] < id ? size : Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0 && index < size) return;
+            int insertAt = index >= 0 ? index : -index - 1;
+            if (size == ids.length) ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            size++;
+        }
+
+        boolean remove(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) return false;
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+            if (size > 8 && size < ids.length >> 2) ids = Arrays.copyOf(ids, ids.length >> 1);
+            return true;
+        }
+
+        boolean contains(long id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package local.nix.task.management.system.rest.repository.token;
+
+import local.nix.task.management.system.rest.config.security.properties.TaskManagementSystemSecurityProperties;
+import local.nix.task.management.system.rest.exception.auth.ForeignRefreshTokenException;
+import local.nix.task.management.system.rest.exception.auth.InvalidRefreshTokenException;
+import local.nix.task.management.system.rest.model.user.User;
+import local.nix.task.management.system.rest.model.user.UserStatus;
+import local.nix.task.management.system.rest.model.user.security.token.RefreshToken;
+import local.nix.task.management.system.rest.model.user.security.token.RefreshTokenGrant;
+import local.nix.task.management.system.rest.repository.RefreshTokenRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+@Component
+@ConditionalOnProperty(prefix = "task-management-system.security.jwt.refresh-store", name = "type",
+        havingValue = "database", matchIfMissing = true)
+public class DatabaseRefreshTokenStore implements RefreshTokenStore {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+
+    private final TransactionOperations transactionOperations;
+
+    private final PostgresRefreshTokenRotation postgresRotation;
+
+    private final Duration refreshExpiration;
+
+    @Autowired
+    public DatabaseRefreshTokenStore(TaskManagementSystemSecurityProperties securityProperties,
+                                     RefreshTokenRepository refreshTokenRepository,
+                                     PlatformTransactionManager transactionManager,
+                                     JdbcTemplate jdbcTemplate) {
+        this(securityProperties, refreshTokenRepository, new TransactionTemplate(transactionManager),
+                PostgresRefreshTokenRotation.supports(jdbcTemplate) ? new PostgresRefreshTokenRotation(jdbcTemplate) : null);
+    }
+
+    public DatabaseRefreshTokenStore(TaskManagementSystemSecurityProperties securityProperties,
+                                     RefreshTokenRepository refreshTokenRepository) {
+        this(securityProperties, refreshTokenRepository, TransactionOperations.withoutTransaction(), null);
+    }
+
+    private DatabaseRefreshTokenStore(TaskManagementSystemSecurityProperties securityProperties,
+                                      RefreshTokenRepository refreshTokenRepository,
+                                      TransactionOperations transactionOperations,
+                                      PostgresRefreshTokenRotation postgresRotation) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.transactionOperations = transactionOperations;
+        this.postgresRotation = postgresRotation;
+        this.refreshExpiration = securityProperties.getJwt().getRefreshExpireIn();
+    }
+
+    @Override
+    @Transactional
+    public RefreshTokenGrant issue(User user) {
+        RefreshToken refreshToken = new RefreshToken();
+        OffsetDateTime now = OffsetDateTime.now();
+        refreshToken.setFamily(TimeOrderedUuid.next());
+        refreshToken.setValue(TimeOrderedUuid.next());
+        refreshToken.setIssuedAt(now);
+        refreshToken.setExpireAt(now.plus(refreshExpiration));
+        refreshToken.setUser(user);
+        return grant(refreshTokenRepository.save(refreshToken));
+    }
+
+    @Override
+    public RefreshTokenGrant rotate(UUID family, UUID value) throws InvalidRefreshTokenException {
+        OffsetDateTime now = OffsetDateTime.now();
+        UUID next = TimeOrderedUuid.next();
+        if (postgresRotation != null) {
+            return postgresRotation.rotate(family, value, next, now, now.plus(refreshExpiration))
+                    .orElseThrow(InvalidRefreshTokenException::new);
+        }
+        RefreshTokenGrant grant = transactionOperations.execute(status -> {
+            int rotated = refreshTokenRepository.rotate(family, value, next,
+                    now, now.plus(refreshExpiration), UserStatus.ACTIVE);
+            if (rotated == 0) {
+                refreshTokenRepository.deleteFamily(family);
+                return null;
+            }
+            return refreshTokenRepository.findFamily(family).map(DatabaseRefreshTokenStore::grant).orElse(null);
+        });
+        if (grant == null) throw new InvalidRefreshTokenException();
+        return grant;
+    }
+
+    @Override
+    @Transactional
+    public void revoke(UUID family, UUID value, String ownerUsername) throws InvalidRefreshTokenException {
+        RefreshToken storedToken = refreshTokenRepository.findFamily(family)
+                .orElseThrow(InvalidRefreshTokenException::new);
+        refreshTokenRepository.deleteFamily(family);
+        if (!storedToken.getUser().getUsername().equals(ownerUsername)) throw new ForeignRefreshTokenException();
+        if (!storedToken.getValue().equals(value)) throw new InvalidRefreshTokenException();
+    }
+
+    private static RefreshTokenGrant grant(RefreshToken token) {
+        User user = token.getUser();
+        return new RefreshTokenGrant(
+                token.getFamily(),
+                token.getValue(),
+                user.getId(),
+                user.getUsername(),
+                user.getAuthorities().keySet(),
+                token.getIssuedAt().toInstant(),
+                token.getExpireAt().toInstant()
+        );
+    }
+}
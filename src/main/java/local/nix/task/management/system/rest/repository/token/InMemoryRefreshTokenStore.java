@@ -0,0 +1,374 @@
+package local.nix.task.management.system.rest.repository.token;
+
+import local.nix.task.management.system.rest.config.security.properties.TaskManagementSystemRefreshStoreProperties;
+import local.nix.task.management.system.rest.config.security.properties.TaskManagementSystemRefreshStoreProperties.Durability;
+import local.nix.task.management.system.rest.config.security.properties.TaskManagementSystemSecurityProperties;
+import local.nix.task.management.system.rest.exception.auth.ForeignRefreshTokenException;
+import local.nix.task.management.system.rest.exception.auth.InvalidRefreshTokenException;
+import local.nix.task.management.system.rest.model.user.KnownAuthority;
+import local.nix.task.management.system.rest.model.user.User;
+import local.nix.task.management.system.rest.model.user.UserStatus;
+import local.nix.task.management.system.rest.model.user.event.UserAccessRevokedEvent;
+import local.nix.task.management.system.rest.model.user.security.token.RefreshTokenGrant;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Serves rotations from memory and mirrors every change into {@code refresh_token}, either in batches
+ * ({@link Durability#WRITE_BEHIND}) or synchronously ({@link Durability#WRITE_THROUGH}).
+ * The table stays the source of truth across restarts: the store is rebuilt from it on startup.
+ * Families live in a single JVM, so this store is only suitable for a single application instance.
+ */
+@Component
+@ConditionalOnProperty(prefix = "task-management-system.security.jwt.refresh-store", name = "type",
+        havingValue = "memory")
+public class InMemoryRefreshTokenStore implements RefreshTokenStore, InitializingBean, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(InMemoryRefreshTokenStore.class);
+
+    private static final String INSERT_FAMILY =
+            "insert into refresh_token (family, value, user_id, issued_at, expire_at) values (?, ?, ?, ?, ?)";
+
+    private static final String ROTATE_FAMILY =
+            "update refresh_token set value = ?, issued_at = ?, expire_at = ? where family = ?";
+
+    private static final String DELETE_FAMILY = "delete from refresh_token where family = ?";
+
+    private static final String DELETE_USER_TOKENS = "delete from refresh_token where user_id = ?";
+
+    private static final String SELECT_FAMILIES = "select rt.family, rt.value, rt.user_id, rt.issued_at, " +
+            "rt.expire_at, u.username from refresh_token rt inner join usr u on u.id = rt.user_id " +
+            "where rt.expire_at > ? and u.status = ?";
+
+    private static final String SELECT_AUTHORITIES = "select ua.user_id, a.value from user_authorities ua " +
+            "inner join authorities a on a.id = ua.authority_id inner join usr u on u.id = ua.user_id " +
+            "where u.status = ?";
+
+    private static final Duration SWEEP_INTERVAL = Duration.ofMinutes(1);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Duration refreshExpiration;
+
+    private final Durability durability;
+
+    private final Duration flushInterval;
+
+    private final int batchSize;
+
+    private final ConcurrentMap<UUID, Family> families = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, Set<Family>> familiesByUsername = new ConcurrentHashMap<>();
+
+    private final Queue<Write> pendingWrites = new ConcurrentLinkedQueue<>();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "refresh-token-store");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public InMemoryRefreshTokenStore(TaskManagementSystemSecurityProperties securityProperties,
+                                     JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.refreshExpiration = securityProperties.getJwt().getRefreshExpireIn();
+        TaskManagementSystemRefreshStoreProperties storeProperties = securityProperties.getJwt().getRefreshStore();
+        this.durability = storeProperties.getDurability();
+        this.flushInterval = storeProperties.getFlushInterval();
+        this.batchSize = storeProperties.getBatchSize();
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        load();
+        if (durability == Durability.WRITE_BEHIND) {
+            long interval = flushInterval.toMillis();
+            scheduler.scheduleWithFixedDelay(this::flushSafely, interval, interval, TimeUnit.MILLISECONDS);
+        }
+        long sweep = SWEEP_INTERVAL.toMillis();
+        scheduler.scheduleWithFixedDelay(this::sweepExpired, sweep, sweep, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        scheduler.shutdown();
+        scheduler.awaitTermination(flushInterval.toMillis() * 2, TimeUnit.MILLISECONDS);
+        flush();
+    }
+
+    @Override
+    public RefreshTokenGrant issue(User user) {
+        Family family = new Family(TimeOrderedUuid.next(), user.getId(), user.getUsername(),
+                user.getAuthorities().keySet());
+        Member member = newMember();
+        family.live.set(member);
+        families.put(family.id, family);
+        familiesByUsername.computeIfAbsent(family.username, username -> ConcurrentHashMap.newKeySet()).add(family);
+        write(INSERT_FAMILY, new Object[]{
+                family.id,
+                member.value,
+                family.userId,
+                Timestamp.from(member.issuedAt),
+                Timestamp.from(member.expireAt)
+        });
+        return family.grant(member);
+    }
+
+    @Override
+    public RefreshTokenGrant rotate(UUID familyId, UUID value) throws InvalidRefreshTokenException {
+        Family family = families.get(familyId);
+        if (family == null) throw new InvalidRefreshTokenException();
+        Member live = family.live.get();
+        Member next = newMember();
+        if (live == null || !live.value.equals(value) || live.isExpired(next.issuedAt)
+                || !family.live.compareAndSet(live, next)) {
+            revoke(family);
+            throw new InvalidRefreshTokenException();
+        }
+        write(ROTATE_FAMILY, new Object[]{
+                next.value,
+                Timestamp.from(next.issuedAt),
+                Timestamp.from(next.expireAt),
+                family.id
+        });
+        return family.grant(next);
+    }
+
+    @Override
+    public void revoke(UUID familyId, UUID value, String ownerUsername) throws InvalidRefreshTokenException {
+        Family family = families.get(familyId);
+        if (family == null) throw new InvalidRefreshTokenException();
+        Member live = revoke(family);
+        if (!family.username.equals(ownerUsername)) throw new ForeignRefreshTokenException();
+        if (live == null || !live.value.equals(value)) throw new InvalidRefreshTokenException();
+    }
+
+    /**
+     * Runs before the revoking transaction commits, so that a write-through delete is part of it: after the commit
+     * the connection may still be bound to the thread without anything left to commit its work.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onUserAccessRevoked(UserAccessRevokedEvent event) {
+        Set<Family> revoked = familiesByUsername.remove(event.getUsername());
+        if (revoked == null) return;
+        Set<Long> userIds = new HashSet<>();
+        for (Family family : revoked) {
+            family.live.set(null);
+            families.remove(family.id, family);
+            userIds.add(family.userId);
+        }
+        for (Long userId : userIds) {
+            write(DELETE_USER_TOKENS, new Object[]{userId});
+        }
+    }
+
+    public int size() {
+        return families.size();
+    }
+
+    /**
+     * Writes everything queued so far. Inserts go before rotations, so a rotation never precedes the insert
+     * of its family, and only the last rotation of each family is written. Deletes act as barriers so that
+     * nothing is reordered across them.
+     */
+    public void flush() {
+        List<Write> inserts = new ArrayList<>();
+        Map<Object, Write> rotations = new LinkedHashMap<>();
+        List<Write> deletes = new ArrayList<>();
+        Write write;
+        while ((write = pendingWrites.poll()) != null) {
+            if (write.sql.equals(INSERT_FAMILY)) {
+                execute(deletes);
+                inserts.add(write);
+                if (inserts.size() == batchSize) execute(inserts);
+            } else if (write.sql.equals(ROTATE_FAMILY)) {
+                execute(deletes);
+                rotations.put(write.args[3], write);
+                if (rotations.size() == batchSize) {
+                    execute(inserts);
+                    execute(rotations);
+                }
+            } else {
+                execute(inserts);
+                execute(rotations);
+                deletes.add(write);
+                if (deletes.size() == batchSize) execute(deletes);
+            }
+        }
+        execute(inserts);
+        execute(rotations);
+        execute(deletes);
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Failed to flush refresh token writes", e);
+        }
+    }
+
+    private void execute(Map<Object, Write> writes) {
+        if (writes.isEmpty()) return;
+        execute(ROTATE_FAMILY, new ArrayList<>(writes.values()));
+        writes.clear();
+    }
+
+    private void execute(List<Write> writes) {
+        int from = 0;
+        for (int i = 1; i <= writes.size(); i++) {
+            if (i == writes.size() || !writes.get(i).sql.equals(writes.get(from).sql)) {
+                execute(writes.get(from).sql, writes.subList(from, i));
+                from = i;
+            }
+        }
+        writes.clear();
+    }
+
+    private void execute(String sql, List<Write> batch) {
+        List<Object[]> args = new ArrayList<>(batch.size());
+        for (Write write : batch) {
+            args.add(write.args);
+        }
+        try {
+            jdbcTemplate.batchUpdate(sql, args);
+        } catch (DataAccessException e) {
+            // a single stale row (e.g. a token of a user deleted meanwhile) must not drop the whole batch
+            for (Object[] single : args) {
+                try {
+                    jdbcTemplate.update(sql, single);
+                } catch (DataAccessException ex) {
+                    log.warn("Dropping refresh token write [{}]: {}", sql, ex.getMessage());
+                }
+            }
+        }
+    }
+
+    private void write(String sql, Object[] args) {
+        if (durability == Durability.WRITE_THROUGH) {
+            jdbcTemplate.update(sql, args);
+        } else {
+            pendingWrites.add(new Write(sql, args));
+        }
+    }
+
+    private Member revoke(Family family) {
+        Member live = family.live.getAndSet(null);
+        forget(family);
+        write(DELETE_FAMILY, new Object[]{family.id});
+        return live;
+    }
+
+    private void forget(Family family) {
+        families.remove(family.id, family);
+        Set<Family> owned = familiesByUsername.get(family.username);
+        if (owned != null) owned.remove(family);
+    }
+
+    private void sweepExpired() {
+        try {
+            Instant now = Instant.now();
+            for (Family family : families.values()) {
+                Member live = family.live.get();
+                if (live == null || live.isExpired(now)) forget(family);
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to sweep expired refresh tokens", e);
+        }
+    }
+
+    private void load() {
+        Map<Long, Set<KnownAuthority>> authorities = new HashMap<>();
+        jdbcTemplate.query(SELECT_AUTHORITIES, rs -> {
+            authorities.computeIfAbsent(rs.getLong(1), id -> EnumSet.noneOf(KnownAuthority.class))
+                    .add(KnownAuthority.valueOf(rs.getString(2)));
+        }, UserStatus.ACTIVE.name());
+        jdbcTemplate.query(SELECT_FAMILIES, rs -> {
+            long userId = rs.getLong(3);
+            Family family = new Family(rs.getObject(1, UUID.class), userId, rs.getString(6),
+                    authorities.getOrDefault(userId, EnumSet.noneOf(KnownAuthority.class)));
+            family.live.set(new Member(rs.getObject(2, UUID.class),
+                    rs.getTimestamp(4).toInstant(), rs.getTimestamp(5).toInstant()));
+            families.put(family.id, family);
+            familiesByUsername.computeIfAbsent(family.username, username -> ConcurrentHashMap.newKeySet()).add(family);
+        }, Timestamp.from(Instant.now()), UserStatus.ACTIVE.name());
+        log.info("Loaded {} refresh token families", families.size());
+    }
+
+    private Member newMember() {
+        Instant now = Instant.now();
+        return new Member(TimeOrderedUuid.next(), now, now.plus(refreshExpiration));
+    }
+
+    private static final class Family {
+
+        private final UUID id;
+
+        private final long userId;
+
+        private final String username;
+
+        private final Set<KnownAuthority> authorities;
+
+        private final AtomicReference<Member> live = new AtomicReference<>();
+
+        private Family(UUID id, long userId, String username, Collection<KnownAuthority> authorities) {
+            this.id = id;
+            this.userId = userId;
+            this.username = username;
+            this.authorities = authorities.isEmpty()
+                    ? EnumSet.noneOf(KnownAuthority.class)
+                    : EnumSet.copyOf(authorities);
+        }
+
+        private RefreshTokenGrant grant(Member member) {
+            return new RefreshTokenGrant(id, member.value, userId, username, authorities, member.issuedAt, member.expireAt);
+        }
+    }
+
+    private static final class Member {
+
+        private final UUID value;
+
+        private final Instant issuedAt;
+
+        private final Instant expireAt;
+
+        private Member(UUID value, Instant issuedAt, Instant expireAt) {
+            this.value = value;
+            this.issuedAt = issuedAt;
+            this.expireAt = expireAt;
+        }
+
+        private boolean isExpired(Instant now) {
+            return !expireAt.isAfter(now);
+        }
+    }
+
+    private static final class Write {
+
+        private final String sql;
+
+        private final Object[] args;
+
+        private Write(String sql, Object[] args) {
+            this.sql = sql;
+            this.args = args;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package local.nix.task.management.system.rest.repository.token;
+
+import local.nix.task.management.system.rest.model.user.KnownAuthority;
+import local.nix.task.management.system.rest.model.user.UserStatus;
+import local.nix.task.management.system.rest.model.user.security.token.RefreshTokenGrant;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+
+import java.sql.DatabaseMetaData;
+import java.time.OffsetDateTime;
+import java.util.EnumSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Rotates a refresh token family with a single statement: the conditional update, the reuse revocation
+ * and the owner lookup run as one PostgreSQL query, so a rotation costs one round trip in auto-commit mode.
+ */
+public class PostgresRefreshTokenRotation {
+
+    private static final String ROTATE_FAMILY = "with rotated as (" +
+            "update refresh_token rt set value = ?, issued_at = ?, expire_at = ? from usr u " +
+            "where rt.family = ? and rt.value = ? and rt.expire_at > ? and u.id = rt.user_id and u.status = ? " +
+            "returning rt.user_id, u.username" +
+            "), revoked as (" +
+            "delete from refresh_token where family = ? and not exists (select 1 from rotated)" +
+            ") " +
+            "select r.user_id, r.username, a.value as authority from rotated r " +
+            "left join user_authorities ua on ua.user_id = r.user_id " +
+            "left join authorities a on a.id = ua.authority_id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PostgresRefreshTokenRotation(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public static boolean supports(JdbcTemplate jdbcTemplate) {
+        try {
+            String productName = (String) JdbcUtils.extractDatabaseMetaData(jdbcTemplate.getDataSource(),
+                    DatabaseMetaData::getDatabaseProductName);
+            return DatabaseDriver.fromProductName(productName) == DatabaseDriver.POSTGRESQL;
+        } catch (MetaDataAccessException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Replaces the live member of {@code family} with {@code next}, provided {@code value} still is that member.
+     *
+     * @return the rotated grant, or an empty optional if the rotation was refused; the family is revoked then
+     */
+    public Optional<RefreshTokenGrant> rotate(UUID family, UUID value, UUID next,
+                                              OffsetDateTime issuedAt, OffsetDateTime expireAt) {
+        long[] userId = new long[1];
+        String[] username = new String[1];
+        Set<KnownAuthority> authorities = EnumSet.noneOf(KnownAuthority.class);
+        jdbcTemplate.query(ROTATE_FAMILY, rs -> {
+            userId[0] = rs.getLong("user_id");
+            username[0] = rs.getString("username");
+            String authority = rs.getString("authority");
+            if (authority != null) authorities.add(KnownAuthority.valueOf(authority));
+        }, next, issuedAt, expireAt, family, value, issuedAt, UserStatus.ACTIVE.name(), family);
+        if (username[0] == null) return Optional.empty();
+        return Optional.of(new RefreshTokenGrant(family, next, userId[0], username[0], authorities,
+                issuedAt.toInstant(), expireAt.toInstant()));
+    }
+
+}
@@ -0,0 +1,28 @@
+package local.nix.task.management.system.rest.repository.token;
+
+import local.nix.task.management.system.rest.exception.auth.ForeignRefreshTokenException;
+import local.nix.task.management.system.rest.exception.auth.InvalidRefreshTokenException;
+import local.nix.task.management.system.rest.model.user.User;
+import local.nix.task.management.system.rest.model.user.security.token.RefreshTokenGrant;
+
+import java.util.UUID;
+
+/**
+ * Keeps refresh token families: a login starts a family, every rotation replaces its single live member,
+ * and presenting any other member of the family revokes the whole family.
+ */
+public interface RefreshTokenStore {
+
+    RefreshTokenGrant issue(User user);
+
+    RefreshTokenGrant rotate(UUID family, UUID value) throws InvalidRefreshTokenException;
+
+    /**
+     * Revokes {@code family}.
+     *
+     * @throws ForeignRefreshTokenException if the family is not owned by {@code ownerUsername};
+     *                                      the family is revoked anyway
+     */
+    void revoke(UUID family, UUID value, String ownerUsername) throws InvalidRefreshTokenException;
+
+}
@@ -0,0 +1,34 @@
+package local.nix.task.management.system.rest.repository.token;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+
+/**
+ * UUIDv7: a 48-bit millisecond timestamp followed by random bits. Keys generated close in time sort
+ * close together, so inserts append to the right edge of the primary key index instead of
+ * splitting random pages.
+ */
+public final class TimeOrderedUuid {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private TimeOrderedUuid() {
+    }
+
+    public static UUID next() {
+        return next(System.currentTimeMillis());
+    }
+
+    static UUID next(long epochMillis) {
+        byte[] random = new byte[10];
+        RANDOM.nextBytes(random);
+        long mostSigBits = (epochMillis & 0xFFFF_FFFF_FFFFL) << 16
+                | 0x7000L
+                | ((random[0] & 0x0FL) << 8) | (random[1] & 0xFFL);
+        long leastSigBits = 0x8000_0000_0000_0000L | ((random[2] & 0x3FL) << 56);
+        for (int i = 3; i < 10; i++) {
+            leastSigBits |= (random[i] & 0xFFL) << ((9 - i) * 8);
+        }
+        return new UUID(mostSigBits, leastSigBits);
+    }
+}
@@ -0,0 +1,170 @@
+package local.nix.task.management.system.rest.service;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import local.nix.task.management.system.rest.config.task.properties.TaskManagementSystemTaskBulkProperties;
+import local.nix.task.management.system.rest.exception.TaskManagementSystemExceptions;
+import local.nix.task.management.system.rest.model.task.Task;
+import local.nix.task.management.system.rest.model.task.event.TaskSavedEvent;
+import local.nix.task.management.system.rest.model.task.request.SaveTaskRequest;
+import local.nix.task.management.system.rest.model.task.response.BulkTaskResult;
+import local.nix.task.management.system.rest.model.user.User;
+import local.nix.task.management.system.rest.repository.UserRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Creates many tasks in one transaction: every referenced user is resolved up front, and the inserts go out in
+ * JDBC batches with ids drawn in blocks from the pooled task sequence.
+ */
+@Service
+public class BulkTaskService {
+
+    /**
+     * Keeps each name query well under the bind parameter limit of PostgreSQL.
+     */
+    private static final int NAMES_PER_QUERY = 10_000;
+
+    private final UserRepository userRepository;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Validator validator;
+
+    private final ObjectReader taskReader;
+
+    private final int maxItems;
+
+    private final int flushSize;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public BulkTaskService(UserRepository userRepository, ApplicationEventPublisher eventPublisher,
+                           Validator validator, ObjectMapper objectMapper,
+                           TaskManagementSystemTaskBulkProperties properties) {
+        this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
+        this.validator = validator;
+        this.taskReader = objectMapper.readerFor(SaveTaskRequest.class);
+        this.maxItems = properties.getMaxItems();
+        this.flushSize = properties.getFlushSize();
+    }
+
+    /**
+     * Reads either a JSON array of tasks or newline-delimited task objects.
+     */
+    public List<SaveTaskRequest> read(InputStream body) {
+        List<SaveTaskRequest> requests = new ArrayList<>();
+        try (MappingIterator<SaveTaskRequest> values = taskReader.readValues(body)) {
+            while (values.hasNextValue()) {
+                if (requests.size() == maxItems) throw TaskManagementSystemExceptions.tooManyTasks(maxItems);
+                requests.add(values.nextValue());
+            }
+        } catch (IOException e) {
+            throw TaskManagementSystemExceptions.malformedTasks(e);
+        }
+        return requests;
+    }
+
+    /**
+     * Creates every valid task; the others are reported with the status a single create would have failed with.
+     *
+     * @return one result per request, in request order
+     */
+    @Transactional
+    public List<BulkTaskResult> create(List<SaveTaskRequest> requests) {
+        BulkTaskResult[] results = new BulkTaskResult[requests.size()];
+        LocalDateTime[] deadlines = new LocalDateTime[requests.size()];
+        Set<String> names = new HashSet<>();
+        for (int i = 0; i < requests.size(); i++) {
+            SaveTaskRequest request = requests.get(i);
+            try {
+                deadlines[i] = validate(request);
+            } catch (ResponseStatusException e) {
+                results[i] = BulkTaskResult.rejected(i, e);
+                continue;
+            }
+            names.add(request.getReviewer());
+            if (request.getExecutor() != null) names.add(request.getExecutor());
+        }
+
+        Map<String, Long> ids = new HashMap<>();
+        Set<String> ambiguous = new HashSet<>();
+        resolve(names, ids, ambiguous);
+
+        Instant createdAt = Instant.now();
+        int inserted = 0;
+        for (int i = 0; i < requests.size(); i++) {
+            if (results[i] != null) continue;
+            SaveTaskRequest request = requests.get(i);
+            Task task = new Task();
+            task.setText(request.getText());
+            task.setDeadline(deadlines[i]);
+            task.setCreatedAt(createdAt);
+            try {
+                if (request.getExecutor() != null) task.setExecutor(reference(request.getExecutor(), ids, ambiguous));
+                task.setReviewer(reference(request.getReviewer(), ids, ambiguous));
+            } catch (ResponseStatusException e) {
+                results[i] = BulkTaskResult.rejected(i, e);
+                continue;
+            }
+            entityManager.persist(task);
+            results[i] = BulkTaskResult.created(i, task.getId());
+            eventPublisher.publishEvent(new TaskSavedEvent(task.getId(), task.getText(), request.getExecutor()));
+            if (++inserted % flushSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    private LocalDateTime validate(SaveTaskRequest request) {
+        if (request == null) throw TaskManagementSystemExceptions.invalidTask("task must not be null");
+        Set<ConstraintViolation<SaveTaskRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            throw TaskManagementSystemExceptions.invalidTask(violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+        try {
+            return TaskService.parseStringToLocalDateTime(request.getDeadline());
+        } catch (DateTimeParseException e) {
+            throw TaskManagementSystemExceptions.invalidDeadline(request.getDeadline());
+        }
+    }
+
+    private void resolve(Set<String> names, Map<String, Long> ids, Set<String> ambiguous) {
+        List<String> remaining = new ArrayList<>(names);
+        for (int from = 0; from < remaining.size(); from += NAMES_PER_QUERY) {
+            List<String> chunk = remaining.subList(from, Math.min(from + NAMES_PER_QUERY, remaining.size()));
+            for (UserRepository.NameView user : userRepository.findNamesIn(chunk)) {
+                if (ids.putIfAbsent(user.getName(), user.getId()) != null) ambiguous.add(user.getName());
+            }
+        }
+    }
+
+    private User reference(String name, Map<String, Long> ids, Set<String> ambiguous) {
+        if (ambiguous.contains(name)) throw TaskManagementSystemExceptions.ambiguousUserName(name);
+        Long id = ids.get(name);
+        if (id == null) throw TaskManagementSystemExceptions.userWithSuchNameNotFound(name);
+        return entityManager.getReference(User.class, id);
+    }
+}
@@ -1,119 +1,80 @@
 package local.nix.task.management.system.rest.service;
 
-import com.auth0.jwt.JWT;
-import com.auth0.jwt.algorithms.Algorithm;
-import local.nix.task.management.system.rest.config.security.SecurityConstants;
-import local.nix.task.management.system.rest.config.security.properties.TaskManagementSystemJWTProperties;
 import local.nix.task.management.system.rest.config.security.properties.TaskManagementSystemSecurityProperties;
+import local.nix.task.management.system.rest.config.security.token.DecodedToken;
+import local.nix.task.management.system.rest.config.security.token.JWTCodec;
+import local.nix.task.management.system.rest.exception.auth.ForeignRefreshTokenException;
 import local.nix.task.management.system.rest.exception.auth.InvalidRefreshTokenException;
-import local.nix.task.management.system.rest.model.user.User;
 import local.nix.task.management.system.rest.model.user.UserStatus;
+import local.nix.task.management.system.rest.model.user.event.UserAccessRevokedEvent;
 import local.nix.task.management.system.rest.model.user.security.SecurityUser;
 import local.nix.task.management.system.rest.model.user.security.response.AccessTokenResponse;
-import local.nix.task.management.system.rest.model.user.security.token.RefreshToken;
-import local.nix.task.management.system.rest.repository.RefreshTokenRepository;
+import local.nix.task.management.system.rest.model.user.security.token.RefreshTokenGrant;
 import local.nix.task.management.system.rest.repository.UserRepository;
+import local.nix.task.management.system.rest.repository.token.RefreshTokenStore;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Service;
 
-import javax.transaction.Transactional;
 import java.time.Duration;
-import java.time.OffsetDateTime;
+import java.time.Instant;
 import java.util.Collection;
-import java.util.Date;
 import java.util.Objects;
 import java.util.UUID;
 
 @Service
 public class JWTAuthService {
 
-    private final RefreshTokenRepository refreshTokenRepository;
+    private final RefreshTokenStore refreshTokenStore;
 
     private final UserRepository userRepository;
 
-    private final Duration jwtExpiration;
+    private final ApplicationEventPublisher eventPublisher;
 
-    private final Duration refreshExpiration;
+    private final Duration jwtExpiration;
 
-    private final Algorithm algorithm;
+    private final JWTCodec codec;
 
     public JWTAuthService(TaskManagementSystemSecurityProperties securityProperties,
-                          RefreshTokenRepository refreshTokenRepository,
-                          UserRepository userRepository) {
-        this.refreshTokenRepository = refreshTokenRepository;
+                          RefreshTokenStore refreshTokenStore,
+                          UserRepository userRepository,
+                          ApplicationEventPublisher eventPublisher,
+                          JWTCodec codec) {
+        this.refreshTokenStore = refreshTokenStore;
         this.userRepository = userRepository;
-        TaskManagementSystemJWTProperties jwtProperties = securityProperties.getJwt();
-        this.jwtExpiration = jwtProperties.getAccessExpireIn();
-        this.refreshExpiration = jwtProperties.getRefreshExpireIn();
-        this.algorithm = Algorithm.HMAC512(jwtProperties.getSecret().getBytes());
+        this.eventPublisher = eventPublisher;
+        this.jwtExpiration = securityProperties.getJwt().getAccessExpireIn();
+        this.codec = codec;
     }
 
-    @Transactional
     public AccessTokenResponse getToken(SecurityUser userDetails) {
-        RefreshToken newToken = issueRefreshToken(userDetails.getSource());
-        return response(userDetails.getUsername(), userDetails.getAuthorities(), newToken);
+        RefreshTokenGrant newToken = refreshTokenStore.issue(userDetails.getSource());
+        return response(newToken.getUserId(), userDetails.getUsername(), userDetails.getAuthorities(), newToken);
     }
 
-    @Transactional
     public AccessTokenResponse refreshToken(String refreshToken)
             throws InvalidRefreshTokenException {
-
-        RefreshToken storedToken = refreshTokenRepository.findIfValid(
-                verifyRefreshToken(refreshToken),
-                OffsetDateTime.now(),
-                UserStatus.ACTIVE
-        ).orElseThrow(InvalidRefreshTokenException::new);
-
-        checkIfRotated(storedToken);
-
-        User user = storedToken.getUser();
-
-        RefreshToken nextToken = issueRefreshToken(user);
-
-        refreshTokenRepository.updateChain(storedToken, nextToken);
-
-        return response(user.getUsername(), user.getAuthorities().keySet(), nextToken);
+        RefreshTokenId id = verifyRefreshToken(refreshToken);
+        RefreshTokenGrant nextToken = refreshTokenStore.rotate(id.family, id.value);
+        return response(nextToken.getUserId(), nextToken.getUsername(), nextToken.getAuthorities(), nextToken);
     }
 
-    @Transactional
     public void invalidateToken(String refreshToken, String ownerUsername) throws InvalidRefreshTokenException {
-        UUID uuid = verifyRefreshToken(refreshToken);
-        RefreshToken storedToken = refreshTokenRepository.findById(uuid)
-                .orElseThrow(InvalidRefreshTokenException::new);
-        checkOwner(storedToken, ownerUsername);
-        checkIfRotated(storedToken);
-        refreshTokenRepository.deleteChain(storedToken);
-    }
-
-    private void checkOwner(RefreshToken storedToken, String username) throws InvalidRefreshTokenException {
-        User user = storedToken.getUser();
-        if (!user.getUsername().equals(username)) {
-            userRepository.changeStatusByUsername(username, UserStatus.SUSPENDED);
-            refreshTokenRepository.deleteChain(storedToken);
-            throw new InvalidRefreshTokenException();
-        }
-    }
-
-    private void checkIfRotated(RefreshToken storedToken) throws InvalidRefreshTokenException {
-        if (storedToken.getNext() != null) {
-            refreshTokenRepository.deleteChain(storedToken.getNext());
-            throw new InvalidRefreshTokenException();
+        RefreshTokenId id = verifyRefreshToken(refreshToken);
+        try {
+            refreshTokenStore.revoke(id.family, id.value, ownerUsername);
+        } catch (ForeignRefreshTokenException e) {
+            userRepository.changeStatusByUsername(ownerUsername, UserStatus.SUSPENDED);
+            eventPublisher.publishEvent(new UserAccessRevokedEvent(ownerUsername, Instant.now()));
+            throw e;
         }
     }
 
-    private RefreshToken issueRefreshToken(User user) {
-        RefreshToken refreshToken = new RefreshToken();
-        OffsetDateTime now = OffsetDateTime.now();
-        refreshToken.setIssuedAt(now);
-        refreshToken.setExpireAt(now.plus(refreshExpiration));
-        refreshToken.setUser(user);
-        return refreshTokenRepository.save(refreshToken);
-    }
-
-    private AccessTokenResponse response(String subject,
+    private AccessTokenResponse response(long userId,
+                                         String subject,
                                          Collection<? extends GrantedAuthority> authorities,
-                                         RefreshToken refreshToken) {
-        String accessToken = issueJWT(subject, authorities);
+                                         RefreshTokenGrant refreshToken) {
+        String accessToken = issueJWT(userId, subject, authorities);
         return new AccessTokenResponse(
                 accessToken,
                 signRefreshToken(refreshToken),
@@ -121,40 +82,45 @@ public class JWTAuthService {
         );
     }
 
-    private UUID verifyRefreshToken(String refreshJWT) throws InvalidRefreshTokenException {
+    private RefreshTokenId verifyRefreshToken(String refreshJWT) throws InvalidRefreshTokenException {
         try {
-            String id = JWT.require(algorithm)
-                    .build()
-                    .verify(refreshJWT)
-                    .getId();
+            DecodedToken decoded = codec.decode(refreshJWT);
+            String id = decoded.getId();
             Objects.requireNonNull(id, "jti must be present in refresh token");
-            return UUID.fromString(id);
+            UUID value = UUID.fromString(id);
+            // tokens issued before families existed were migrated into families keyed by their own jti
+            UUID family = decoded.getFamily() == null ? value : UUID.fromString(decoded.getFamily());
+            return new RefreshTokenId(family, value);
         } catch (Exception e) {
             throw new InvalidRefreshTokenException(e);
         }
     }
 
-    private String signRefreshToken(RefreshToken token) {
-        return JWT.create()
-                .withSubject(token.getUser().getUsername())
-                .withJWTId(token.getValue().toString())
-                .withIssuedAt(Date.from(token.getIssuedAt().toInstant()))
-                .withExpiresAt(Date.from(token.getExpireAt().toInstant()))
-                .sign(algorithm);
+    private String signRefreshToken(RefreshTokenGrant token) {
+        return codec.encodeRefreshToken(
+                token.getUsername(),
+                token.getValue(),
+                token.getFamily(),
+                token.getIssuedAt().toEpochMilli(),
+                token.getExpireAt().toEpochMilli()
+        );
     }
 
-    private String issueJWT(String subject, Collection<? extends GrantedAuthority> authorities) {
+    private String issueJWT(long userId, String subject, Collection<? extends GrantedAuthority> authorities) {
         long issuedAt = System.currentTimeMillis();
-        return JWT.create()
-                .withSubject(subject)
-                .withIssuedAt(new Date(issuedAt))
-                .withExpiresAt(new Date(issuedAt + jwtExpiration.toMillis()))
-                .withArrayClaim(SecurityConstants.AUTHORITIES_CLAIM, authorities.stream()
-                        .map(GrantedAuthority::getAuthority)
-                        .toArray(String[]::new))
-                .sign(algorithm);
+        return codec.encodeAccessToken(userId, subject, authorities, issuedAt, issuedAt + jwtExpiration.toMillis());
     }
 
+    private static final class RefreshTokenId {
+
+        private final UUID family;
+
+        private final UUID value;
 
+        private RefreshTokenId(UUID family, UUID value) {
+            this.family = family;
+            this.value = value;
+        }
+    }
 
 }
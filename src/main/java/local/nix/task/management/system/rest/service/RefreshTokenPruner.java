@@ -0,0 +1,68 @@
+package local.nix.task.management.system.rest.service;
+
+import local.nix.task.management.system.rest.config.security.properties.TaskManagementSystemRefreshTokenPruneProperties;
+import local.nix.task.management.system.rest.config.security.properties.TaskManagementSystemSecurityProperties;
+import local.nix.task.management.system.rest.model.user.UserStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.IntervalTask;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StopWatch;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Deletes expired refresh tokens and tokens of suspended users. Every batch is a separate
+ * auto-committed statement, so the job never holds locks on more than {@code batch-size} rows.
+ */
+@Component
+@ConditionalOnProperty(prefix = "task-management-system.security.jwt.prune", name = "enabled",
+        havingValue = "true", matchIfMissing = true)
+public class RefreshTokenPruner implements SchedulingConfigurer {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenPruner.class);
+
+    private static final String DELETE_BATCH = "delete from refresh_token where family in (" +
+            "select rt.family from refresh_token rt inner join usr u on u.id = rt.user_id " +
+            "where rt.expire_at < ? or u.status = ? limit ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Duration interval;
+
+    private final int batchSize;
+
+    public RefreshTokenPruner(TaskManagementSystemSecurityProperties securityProperties, JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        TaskManagementSystemRefreshTokenPruneProperties pruneProperties = securityProperties.getJwt().getPrune();
+        this.interval = pruneProperties.getInterval();
+        this.batchSize = pruneProperties.getBatchSize();
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar registrar) {
+        long delay = interval.toMillis();
+        registrar.addFixedDelayTask(new IntervalTask(this::prune, delay, delay));
+    }
+
+    public int prune() {
+        StopWatch stopWatch = new StopWatch();
+        stopWatch.start();
+        Timestamp now = Timestamp.from(Instant.now());
+        int total = 0;
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update(DELETE_BATCH, now, UserStatus.SUSPENDED.name(), batchSize);
+            total += deleted;
+        } while (deleted == batchSize);
+        stopWatch.stop();
+        log.info("Pruned {} refresh tokens in {} ms", total, stopWatch.getTotalTimeMillis());
+        return total;
+    }
+}
@@ -3,13 +3,27 @@ package local.nix.task.management.system.rest.service;
 import local.nix.task.management.system.rest.exception.TaskManagementSystemExceptions;
 import local.nix.task.management.system.rest.model.task.Task;
 import local.nix.task.management.system.rest.model.task.TaskStatus;
+import local.nix.task.management.system.rest.model.task.event.TaskDeletedEvent;
+import local.nix.task.management.system.rest.model.task.event.TaskSavedEvent;
+import local.nix.task.management.system.rest.model.page.CountMode;
+import local.nix.task.management.system.rest.model.page.Cursor;
+import local.nix.task.management.system.rest.model.page.CursorPage;
 import local.nix.task.management.system.rest.model.task.request.SaveTaskRequest;
+import local.nix.task.management.system.rest.model.task.request.TaskFilter;
 import local.nix.task.management.system.rest.model.task.response.TaskResponse;
 import local.nix.task.management.system.rest.model.user.User;
 import local.nix.task.management.system.rest.repository.TaskRepository;
 import local.nix.task.management.system.rest.repository.UserRepository;
+import local.nix.task.management.system.rest.repository.cache.UserCache;
+import local.nix.task.management.system.rest.repository.cache.UserNameResolver;
+import local.nix.task.management.system.rest.repository.count.RowCountEstimator;
+import local.nix.task.management.system.rest.repository.search.TaskSearch;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.repository.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -17,6 +31,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 
@@ -28,14 +43,33 @@ public class TaskService {
 
     private final UserRepository userRepository;
 
-    public TaskService(TaskRepository taskRepository, UserRepository userRepository) {
+    private final TaskSearch taskSearch;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final RowCountEstimator rowCountEstimator;
+
+    private final UserNameResolver userNameResolver;
+
+    private final UserCache userCache;
+
+    public TaskService(TaskRepository taskRepository, UserRepository userRepository, TaskSearch taskSearch,
+                       ApplicationEventPublisher eventPublisher, RowCountEstimator rowCountEstimator,
+                       UserNameResolver userNameResolver, UserCache userCache) {
         this.taskRepository = taskRepository;
         this.userRepository = userRepository;
+        this.taskSearch = taskSearch;
+        this.eventPublisher = eventPublisher;
+        this.rowCountEstimator = rowCountEstimator;
+        this.userNameResolver = userNameResolver;
+        this.userCache = userCache;
     }
 
     @Transactional
     public TaskResponse create(SaveTaskRequest request) {
-        return TaskResponse.fromTask(save(request));
+        Task task = save(request);
+        publishSaved(task);
+        return TaskResponse.fromTask(task);
     }
 
     private Task save(SaveTaskRequest request) {
@@ -55,20 +89,87 @@ public class TaskService {
 
     @Transactional(readOnly = true)
     public Page<TaskResponse> list(Pageable pageable) {
-        return taskRepository.findAll(pageable).map(TaskResponse::fromTask);
+        return taskRepository.findAllResponses(pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public Slice<TaskResponse> list(Pageable pageable, CountMode count) {
+        switch (count) {
+            case NONE:
+                return taskRepository.findResponseSlice(pageable);
+            case ESTIMATED:
+                return RowCountEstimator.toPage(taskRepository.findResponseSlice(pageable),
+                        () -> rowCountEstimator.estimateRows("task"));
+            default:
+                return list(pageable);
+        }
     }
 
 
+    /**
+     * Tasks in order of creation, read by keyset so that every page costs the same. The cursor does not remember
+     * the filter: every page has to be requested with the same one.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<TaskResponse> list(TaskFilter filter, String after, int size) {
+        Cursor cursor;
+        Instant createdAt;
+        try {
+            cursor = Cursor.decode(after);
+            createdAt = cursor == null ? null : Instant.parse(cursor.getKey());
+        } catch (RuntimeException e) {
+            throw TaskManagementSystemExceptions.invalidCursor(after);
+        }
+        int limit = CursorPage.clampSize(size);
+        PageRequest rows = PageRequest.of(0, limit + 1);
+        List<TaskResponse> tasks;
+        if (!filter.isEmpty()) {
+            tasks = taskRepository.findFilteredAfter(filter, createdAt, cursor == null ? 0 : cursor.getId(),
+                    limit + 1);
+        } else if (cursor == null) {
+            tasks = taskRepository.findFirstResponses(rows);
+        } else {
+            tasks = taskRepository.findResponsesAfter(createdAt, cursor.getId(), rows);
+        }
+        return CursorPage.of(tasks, limit, task -> Cursor.of(task.getCreatedAt().toString(), task.getId()));
+    }
+
     @Transactional(readOnly = true)
     public Page<TaskResponse> search(String keyword, Pageable pageable) {
-        return taskRepository.search(keyword, pageable)
-                .map(TaskResponse::fromTask);
+        return taskSearch.search(keyword, pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public Slice<TaskResponse> search(String keyword, Pageable pageable, CountMode count) {
+        switch (count) {
+            case NONE:
+                return taskSearch.searchSlice(keyword, pageable);
+            case ESTIMATED:
+                return RowCountEstimator.toPage(taskSearch.searchSlice(keyword, pageable),
+                        () -> rowCountEstimator.cachedCount("task-search:" + keyword, () -> taskSearch.count(keyword)));
+            default:
+                return search(keyword, pageable);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<TaskResponse> search(String keyword, String after, int size) {
+        Cursor cursor;
+        try {
+            cursor = Cursor.decode(after);
+        } catch (RuntimeException e) {
+            throw TaskManagementSystemExceptions.invalidCursor(after);
+        }
+        int limit = CursorPage.clampSize(size);
+        List<TaskResponse> tasks = taskSearch.searchAfter(keyword, cursor == null ? 0 : cursor.getId(), limit + 1);
+        return CursorPage.of(tasks, limit, task -> Cursor.of(task.getId()));
     }
 
     @Transactional
     public TaskResponse mergeById(long id, SaveTaskRequest request) {
-        Task task = getTask(id);
-        return TaskResponse.fromTask(merge(task, request));
+        Task task = merge(getTask(id), request);
+        publishSaved(task);
+        return TaskResponse.fromTask(task);
     }
 
 
@@ -111,37 +212,75 @@ public class TaskService {
         return TaskResponse.fromTask(task);
     }
 
+    /**
+     * The executor comes from the user cache: the task only needs its id for the reference and its name for the
+     * response, and a user deleted since the token was issued is a 404 rather than a dangling reference.
+     */
     @Transactional
-    public TaskResponse changeExecutorById(long id, String executor) {
+    public TaskResponse changeExecutorById(long id, long executorId) {
         Task task = getTask(id);
         if (Objects.isNull(task.getExecutor())) {
-            User executorForTask = getUserByUsername(executor);
-            task.setExecutor(executorForTask);
+            User executor = userCache.findById(executorId, userRepository::findUserById)
+                    .orElseThrow(() -> TaskManagementSystemExceptions.userNotFound(executorId));
+            task.setExecutor(executor);
             taskRepository.save(task);
+            publishSaved(task);
         }
         return TaskResponse.fromTask(task);
     }
 
+    /**
+     * Tasks to review for admins, tasks to execute for everyone else.
+     */
+    @Transactional(readOnly = true)
+    public Slice<TaskResponse> getUserTasks(long userId, boolean reviewer, TaskFilter filter, Pageable pageable,
+                                            CountMode count) {
+        if (reviewer) {
+            filter.setReviewerId(userId);
+        } else {
+            filter.setExecutorId(userId);
+        }
+        return list(filter, pageable, count);
+    }
+
+    @Transactional(readOnly = true)
+    public Slice<TaskResponse> list(TaskFilter filter, Pageable pageable, CountMode count) {
+        if (filter.isEmpty()) return list(pageable, count);
+        Slice<TaskResponse> tasks = taskRepository.findFiltered(filter, pageable);
+        switch (count) {
+            case NONE:
+                return tasks;
+            case ESTIMATED:
+                return RowCountEstimator.toPage(tasks,
+                        () -> rowCountEstimator.cachedCount("task-filter:" + filter,
+                                () -> taskRepository.countFiltered(filter)));
+            default:
+                return PageableExecutionUtils.getPage(tasks.getContent(), pageable,
+                        () -> taskRepository.countFiltered(filter));
+        }
+    }
+
     @Transactional
     public void deleteById(long id) {
         if (!taskRepository.existsById(id)) throw TaskManagementSystemExceptions.taskNotFound(id);
         taskRepository.purgeById(id);
+        eventPublisher.publishEvent(new TaskDeletedEvent(id));
     }
 
     @Transactional(readOnly = true)
     public Optional<TaskResponse> findById(Long id) {
-        return taskRepository.findById(id).map(TaskResponse::fromTask);
+        return taskRepository.findResponseById(id);
     }
 
 
-    private User getUserByName(String name) {
-        return userRepository.findUserByName(name)
-                .orElseThrow(() -> TaskManagementSystemExceptions.userWithSuchNameNotFound(name));
+    private void publishSaved(Task task) {
+        User executor = task.getExecutor();
+        eventPublisher.publishEvent(new TaskSavedEvent(task.getId(), task.getText(),
+                executor == null ? null : executor.getName()));
     }
 
-    private User getUserByUsername(String username) {
-        return userRepository.findUserByUsername(username)
-                .orElseThrow(() -> TaskManagementSystemExceptions.userNotFound(username));
+    private User getUserByName(String name) {
+        return userRepository.getOne(userNameResolver.resolve(name));
     }
 
     private Task getTask(long id) {
@@ -1,58 +1,87 @@
 package local.nix.task.management.system.rest.service;
 
+import local.nix.task.management.system.rest.config.security.password.BoundedPasswordEncoder;
 import local.nix.task.management.system.rest.exception.TaskManagementSystemExceptions;
-import local.nix.task.management.system.rest.model.task.Task;
-import local.nix.task.management.system.rest.model.task.response.TaskResponse;
+import local.nix.task.management.system.rest.exception.auth.PasswordHashingRejectedException;
+import local.nix.task.management.system.rest.model.page.CountMode;
+import local.nix.task.management.system.rest.model.page.Cursor;
+import local.nix.task.management.system.rest.model.page.CursorPage;
 import local.nix.task.management.system.rest.model.user.*;
+import local.nix.task.management.system.rest.model.user.event.UserAccessRevokedEvent;
+import local.nix.task.management.system.rest.model.user.event.UserChangedEvent;
 import local.nix.task.management.system.rest.model.user.request.ChangeUserPasswordRequest;
 import local.nix.task.management.system.rest.model.user.request.MergeUserRequest;
 import local.nix.task.management.system.rest.model.user.request.SaveUserRequest;
 import local.nix.task.management.system.rest.model.user.response.UserResponse;
 import local.nix.task.management.system.rest.model.user.security.SecurityUser;
+import local.nix.task.management.system.rest.repository.UserAuthorityRegistry;
 import local.nix.task.management.system.rest.repository.UserAuthorityRepository;
 import local.nix.task.management.system.rest.repository.UserRepository;
+import local.nix.task.management.system.rest.repository.cache.UserCache;
+import local.nix.task.management.system.rest.repository.count.RowCountEstimator;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import javax.validation.constraints.NotNull;
 import java.time.Instant;
 import java.util.*;
-import java.util.function.Function;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 
 
 @Service
-public class UserService implements UserDetailsService {
+public class UserService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
 
-    private final UserAuthorityRepository userAuthorityRepository;
+    private final UserAuthorityRegistry userAuthorityRegistry;
 
-    private final PasswordEncoder passwordEncoder;
+    private final BoundedPasswordEncoder passwordEncoder;
 
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, UserAuthorityRepository userAuthorityRepository) {
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final RowCountEstimator rowCountEstimator;
+
+    private final UserCache userCache;
+
+    public UserService(UserRepository userRepository, BoundedPasswordEncoder passwordEncoder,
+                       UserAuthorityRegistry userAuthorityRegistry, TransactionTemplate transactionTemplate,
+                       ApplicationEventPublisher eventPublisher, RowCountEstimator rowCountEstimator,
+                       UserCache userCache) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
-        this.userAuthorityRepository = userAuthorityRepository;
+        this.userAuthorityRegistry = userAuthorityRegistry;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.rowCountEstimator = rowCountEstimator;
+        this.userCache = userCache;
     }
 
-    @Transactional
     public UserResponse create(SaveUserRequest request) {
-            validateUniqueFields(request);
-            return UserResponse.fromUser(save(request, getRegularUserAuthorities()));
+        validateUniqueFields(request);
+        String password = encodePassword(request.getPassword());
+        return transactionTemplate.execute(status ->
+                UserResponse.fromUser(save(request, password, getRegularUserAuthorities())));
     }
 
-    @Transactional
     public UserResponse createAdmin(SaveUserRequest request) {
         validateUniqueFields(request);
-        return UserResponse.fromUser(save(request, getAdminAuthorities()));
+        String password = encodePassword(request.getPassword());
+        return transactionTemplate.execute(status ->
+                UserResponse.fromUser(save(request, password, getAdminAuthorities())));
     }
 
     @Transactional(readOnly = true)
@@ -60,26 +89,54 @@ public class UserService implements UserDetailsService {
         return userRepository.findAll(pageable).map(UserResponse::fromUserWithBasicAttributes);
     }
 
+    @Transactional(readOnly = true)
+    public Slice<UserResponse> list(Pageable pageable, CountMode count) {
+        switch (count) {
+            case NONE:
+                return userRepository.findAllBy(pageable).map(UserResponse::fromUserWithBasicAttributes);
+            case ESTIMATED:
+                return RowCountEstimator.toPage(userRepository.findAllBy(pageable),
+                        () -> rowCountEstimator.estimateRows("usr")).map(UserResponse::fromUserWithBasicAttributes);
+            default:
+                return list(pageable);
+        }
+    }
 
+    /**
+     * Users in order of registration, read by keyset so that every page costs the same.
+     */
     @Transactional(readOnly = true)
+    public CursorPage<UserResponse> list(String after, int size) {
+        Cursor cursor;
+        Instant createdAt;
+        try {
+            cursor = Cursor.decode(after);
+            createdAt = cursor == null ? null : Instant.parse(cursor.getKey());
+        } catch (RuntimeException e) {
+            throw TaskManagementSystemExceptions.invalidCursor(after);
+        }
+        int limit = CursorPage.clampSize(size);
+        PageRequest rows = PageRequest.of(0, limit + 1);
+        List<User> users = cursor == null
+                ? userRepository.findAllByOrderByCreatedAtAscIdAsc(rows)
+                : userRepository.findAfter(createdAt, cursor.getId(), rows);
+        return CursorPage.of(users, limit, user -> Cursor.of(user.getCreatedAt().toString(), user.getId()))
+                .map(UserResponse::fromUserWithBasicAttributes);
+    }
+
+
     public Optional<UserResponse> findById(Long id) {
-        return userRepository.findById(id).map(UserResponse::fromUser);
+        return userCache.findById(id, userRepository::findUserById).map(UserResponse::fromUser);
     }
 
-    @Transactional(readOnly = true)
     public Optional<UserResponse> findByUsername(String username) {
-        return userRepository.findUserByUsername(username).map(UserResponse::fromUser);
+        return userCache.findByUsername(username, userRepository::findUserByUsername).map(UserResponse::fromUser);
     }
 
     @Transactional
     public UserResponse mergeById(long id, MergeUserRequest request) {
         User user = getUser(id);
-        return UserResponse.fromUser(merge(user, request));
-    }
-
-    @Transactional
-    public UserResponse mergeByUsername(String username, MergeUserRequest request) {
-        User user = getUser(username);
+        publishChanged(user);
         return UserResponse.fromUser(merge(user, request));
     }
 
@@ -89,115 +146,149 @@ public class UserService implements UserDetailsService {
         if (user.getStatus() != status) {
             user.setStatus(status);
             userRepository.save(user);
+            publishChanged(user);
+            if (status == UserStatus.SUSPENDED) publishAccessRevoked(user.getUsername());
         }
         return UserResponse.fromUser(user);
     }
 
-    @Transactional
     public UserResponse changePasswordById(long id, ChangeUserPasswordRequest request) {
-        User user = getUser(id);
-        changePassword(user, request.getOldPassword(), request.getNewPassword());
-        return UserResponse.fromUser(user);
-    }
-
-    @Transactional
-    public UserResponse changePasswordByUsername(String username, ChangeUserPasswordRequest request) {
-        User user = getUser(username);
-        changePassword(user, request.getOldPassword(), request.getNewPassword());
-        return UserResponse.fromUser(user);
+        String password = encodeChangedPassword(getUser(id), request.getOldPassword(), request.getNewPassword());
+        return transactionTemplate.execute(status -> {
+            User user = getUser(id);
+            publishChanged(user);
+            return UserResponse.fromUser(changePassword(user, password));
+        });
     }
 
     @Transactional
     public void deleteById(long id) {
-        if (!userRepository.existsById(id)) throw TaskManagementSystemExceptions.userNotFound(id);
+        User user = getUser(id);
         userRepository.purgeById(id);
-    }
-
-    @Transactional
-    public void deleteByUsername(String username) {
-        if (!userRepository.existsByUsername(username)) throw TaskManagementSystemExceptions.userNotFound(username);
-        userRepository.purgeByUsername(username);
+        publishChanged(user);
+        publishAccessRevoked(user.getUsername());
     }
 
     @Override
-    @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findUserByUsername(username)
+        User user = userCache.findByUsername(username, userRepository::findUserByUsername)
                 .orElseThrow(() -> new UsernameNotFoundException("User with username " + username + " not defined"));
         return new SecurityUser(user);
     }
 
+    @Override
     @Transactional
-    public void mergeAdmins(@NotNull List<SaveUserRequest> requests) {
-        if (requests.isEmpty()) return;
-        Map<KnownAuthority,UserAuthority> authorities = getAdminAuthorities();
-        for(SaveUserRequest request: requests) {
-            String username = request.getUsername();
-            String name = request.getName();
-            User user = userRepository.findUserByName(name).orElseGet(() -> {
-                User newUser = new User();
-                newUser.setName(name);
-                newUser.setCreatedAt(Instant.now());
-                return newUser;
-            });
-            if (!username.equals(user.getUsername())) {
-                if (userRepository.existsByUsername(username)) throw TaskManagementSystemExceptions.duplicateUsername(username);
-                user.setUsername(username);
-            }
-            user.setPassword(passwordEncoder.encode(request.getPassword()));
-            user.getAuthorities().putAll(authorities);
-            userRepository.save(user);
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = ((SecurityUser) userDetails).getSource();
+        userRepository.changePasswordById(user.getId(), newPassword);
+        publishChanged(user);
+        user.setPassword(newPassword);
+        return new SecurityUser(user);
+    }
 
+    public int mergeAdmins(@NotNull List<SaveUserRequest> requests) {
+        if (requests.isEmpty()) return 0;
+        List<String> storedPasswords = transactionTemplate.execute(status -> requests.stream()
+                .map(request -> userRepository.findUserByName(request.getName())
+                        .filter(user -> isUpToDateAdmin(user, request))
+                        .map(User::getPassword)
+                        .orElse(null))
+                .collect(Collectors.toList()));
+        List<CompletableFuture<String>> futures = new ArrayList<>(requests.size());
+        try {
+            for (int i = 0; i < requests.size(); i++) {
+                futures.add(encodeIfChanged(requests.get(i).getPassword(), storedPasswords.get(i)));
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        } catch (PasswordHashingRejectedException e) {
+            throw TaskManagementSystemExceptions.passwordHashingUnavailable(e);
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof PasswordHashingRejectedException) {
+                throw TaskManagementSystemExceptions.passwordHashingUnavailable((PasswordHashingRejectedException) e.getCause());
+            }
+            throw e;
         }
+        List<Integer> changed = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            if (futures.get(i).join() != null) changed.add(i);
+        }
+        if (changed.isEmpty()) return 0;
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<KnownAuthority,UserAuthority> authorities = getAdminAuthorities();
+            for (int i : changed) {
+                SaveUserRequest request = requests.get(i);
+                String username = request.getUsername();
+                String name = request.getName();
+                User user = userRepository.findUserByName(name).orElseGet(() -> {
+                    User newUser = new User();
+                    newUser.setName(name);
+                    newUser.setCreatedAt(Instant.now());
+                    return newUser;
+                });
+                if (!username.equals(user.getUsername())) {
+                    if (userRepository.existsByUsername(username)) throw TaskManagementSystemExceptions.duplicateUsername(username);
+                    user.setUsername(username);
+                }
+                user.setPassword(futures.get(i).join());
+                user.getAuthorities().putAll(authorities);
+                if (user.getId() != null) publishChanged(user);
+                userRepository.save(user);
+            }
+        });
+        return changed.size();
     }
 
-    @Transactional
-    public Page<TaskResponse> getUserTasks(String username, Pageable pageable) {
-        User currentUser = getUser(username);
-        Page<TaskResponse> result;
-        if (currentUser.getAuthorities().keySet().contains(KnownAuthority.ROLE_ADMIN)) {
-            result = convertTaskListToTaskResponsePage(currentUser.getTasks_to_review());
-        } else {
-            result = convertTaskListToTaskResponsePage(currentUser.getTasks_to_execute());
-        }
-        return result;
+    private boolean isUpToDateAdmin(User user, SaveUserRequest request) {
+        return request.getUsername().equals(user.getUsername())
+                && user.getAuthorities().keySet().containsAll(UserAuthorityRepository.ADMIN_AUTHORITIES);
     }
 
-    private Page<TaskResponse> convertTaskListToTaskResponsePage(List<Task> taskList) {
-        List<TaskResponse> result = taskList.stream()
-                .map(task -> TaskResponse.fromTask(task))
-                .collect(Collectors.toList());
-        return new PageImpl<>(result);
+    /**
+     * Completes with {@code null} when the stored hash already matches and needs no upgrade,
+     * otherwise with a fresh hash. Both the check and the hashing run on the hashing pool.
+     */
+    private CompletableFuture<String> encodeIfChanged(String rawPassword, String storedPassword) {
+        if (storedPassword == null) return passwordEncoder.encodeAsync(rawPassword);
+        return passwordEncoder.matchesAsync(rawPassword, storedPassword)
+                .thenCompose(matches -> matches && !passwordEncoder.upgradeEncoding(storedPassword)
+                        ? CompletableFuture.completedFuture(null)
+                        : passwordEncoder.encodeAsync(rawPassword));
     }
 
     private Map<KnownAuthority, UserAuthority> getAdminAuthorities() {
-        Set<KnownAuthority> values = UserAuthorityRepository.ADMIN_AUTHORITIES;
-        List<UserAuthority> userAuthorityList = userAuthorityRepository.findByValueIn(values);
-        return userAuthorityList.stream()
-                .collect(Collectors.toMap(
-                        UserAuthority::getValue,
-                        Function.identity(),
-                        (e1, e2) -> e2,
-                        () -> new EnumMap<>(KnownAuthority.class)
-                ));
+        return userAuthorityRegistry.getAll(UserAuthorityRepository.ADMIN_AUTHORITIES);
     }
 
     private Map<KnownAuthority, UserAuthority> getRegularUserAuthorities() {
-        UserAuthority authority = userAuthorityRepository
-                .findByValue(KnownAuthority.ROLE_USER)
-                .orElseThrow(() -> TaskManagementSystemExceptions.authorityNotFound(KnownAuthority.ROLE_USER.name()));
-        Map<KnownAuthority, UserAuthority> authorities = new EnumMap<KnownAuthority, UserAuthority>(KnownAuthority.class);
-        authorities.put(KnownAuthority.ROLE_USER, authority);
-        return authorities;
+        return userAuthorityRegistry.getAll(EnumSet.of(KnownAuthority.ROLE_USER));
     }
 
-    private void changePassword(User user, String oldPassword, String newPassword) {
-        if (!passwordEncoder.matches(oldPassword, user.getPassword())) {
+    private String encodeChangedPassword(User user, String oldPassword, String newPassword) {
+        boolean matches;
+        try {
+            matches = passwordEncoder.matches(oldPassword, user.getPassword());
+        } catch (PasswordHashingRejectedException e) {
+            throw TaskManagementSystemExceptions.passwordHashingUnavailable(e);
+        }
+        if (!matches) {
             throw TaskManagementSystemExceptions.wrongPassword();
         }
-        if (newPassword.equals(oldPassword)) return;
-        user.setPassword(passwordEncoder.encode(newPassword));
-        userRepository.save(user);
+        if (newPassword.equals(oldPassword)) return null;
+        return encodePassword(newPassword);
+    }
+
+    private User changePassword(User user, String encodedPassword) {
+        if (encodedPassword == null) return user;
+        user.setPassword(encodedPassword);
+        return userRepository.save(user);
+    }
+
+    private String encodePassword(String rawPassword) {
+        try {
+            return passwordEncoder.encode(rawPassword);
+        } catch (PasswordHashingRejectedException e) {
+            throw TaskManagementSystemExceptions.passwordHashingUnavailable(e);
+        }
     }
 
     @Transactional
@@ -205,25 +296,52 @@ public class UserService implements UserDetailsService {
         return userRepository.search(keyword, pageable);
     }
 
+    @Transactional(readOnly = true)
+    public Slice<String> search(String keyword, Pageable pageable, CountMode count) {
+        switch (count) {
+            case NONE:
+                return userRepository.searchSlice(keyword, pageable);
+            case ESTIMATED:
+                return RowCountEstimator.toPage(userRepository.searchSlice(keyword, pageable),
+                        () -> rowCountEstimator.cachedCount("user-search:" + keyword,
+                                () -> userRepository.countByNameContaining(keyword)));
+            default:
+                return search(keyword, pageable);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<String> search(String keyword, String after, int size) {
+        Cursor cursor;
+        try {
+            cursor = Cursor.decode(after);
+        } catch (RuntimeException e) {
+            throw TaskManagementSystemExceptions.invalidCursor(after);
+        }
+        int limit = CursorPage.clampSize(size);
+        PageRequest rows = PageRequest.of(0, limit + 1);
+        List<UserRepository.NameView> names = cursor == null
+                ? userRepository.searchNames(keyword, rows)
+                : userRepository.searchNamesAfter(keyword, cursor.getKey(), cursor.getId(), rows);
+        return CursorPage.of(names, limit, name -> Cursor.of(name.getName(), name.getId()))
+                .map(UserRepository.NameView::getName);
+    }
+
 
     private User getUser(Long id) {
         return userRepository.findById(id)
                 .orElseThrow(() -> TaskManagementSystemExceptions.userNotFound(id));
     }
 
-    private User getUser(String username) {
-        return userRepository.findUserByUsername(username)
-                .orElseThrow(() -> TaskManagementSystemExceptions.userNotFound(username));
-    }
-
-    private User save(SaveUserRequest request, Map<KnownAuthority, UserAuthority> authorities) {
+    private User save(SaveUserRequest request, String encodedPassword, Map<KnownAuthority, UserAuthority> authorities) {
         User user = new User();
         user.getAuthorities().putAll(authorities);
         user.setUsername(request.getUsername());
         user.setName(request.getName());
         user.setCreatedAt(Instant.now());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
+        user.setPassword(encodedPassword);
         userRepository.save(user);
+        publishChanged(user);
         return user;
     }
 
@@ -231,12 +349,21 @@ public class UserService implements UserDetailsService {
         String username = request.getUsername();
         if (username != null && !username.equals(user.getUsername())) {
             if (userRepository.existsByUsername(username)) throw TaskManagementSystemExceptions.duplicateUsername(username);
+            publishAccessRevoked(user.getUsername());
             user.setUsername(username);
         }
         return userRepository.save(user);
 
     }
 
+    private void publishChanged(User user) {
+        eventPublisher.publishEvent(new UserChangedEvent(user.getId(), user.getName()));
+    }
+
+    private void publishAccessRevoked(String username) {
+        eventPublisher.publishEvent(new UserAccessRevokedEvent(username, Instant.now()));
+    }
+
     private void validateUniqueFields(SaveUserRequest request) {
         String username = request.getUsername();
         if (userRepository.existsByUsername(username)) {
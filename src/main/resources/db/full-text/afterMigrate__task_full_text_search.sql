@@ -0,0 +1,12 @@
+-- Runs after every migration while search mode is full-text, so it is idempotent and the objects appear whenever
+-- the mode is switched on. It stays out of the schema history, so switching the mode off again validates cleanly.
+create extension if not exists pg_trgm;
+
+alter table task add column if not exists search_vector tsvector
+    generated always as (to_tsvector('simple', text)) stored;
+
+create index if not exists task_search_vector_index on task using gin (search_vector);
+
+create index if not exists task_text_trgm_index on task using gin (text gin_trgm_ops);
+
+create index if not exists usr_name_trgm_index on usr using gin (name gin_trgm_ops);
@@ -0,0 +1,5 @@
+create index refresh_token_user_id_index on refresh_token (user_id);
+
+create index refresh_token_next_index on refresh_token (next);
+
+create index refresh_token_expire_at_index on refresh_token (expire_at);
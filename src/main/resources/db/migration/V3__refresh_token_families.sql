@@ -0,0 +1,14 @@
+-- Rotated tokens only ever pointed at the head of their chain; heads become the families.
+delete from refresh_token where next is not null;
+
+alter table refresh_token drop constraint refresh_tokens_next_fk;
+alter table refresh_token drop column next;
+
+alter table refresh_token add column family uuid;
+update refresh_token set family = value;
+alter table refresh_token alter column family set not null;
+
+alter table refresh_token drop constraint refresh_token_pkey;
+alter table refresh_token add constraint refresh_token_pkey primary key (family);
+
+create unique index refresh_token_value_index on refresh_token (value);
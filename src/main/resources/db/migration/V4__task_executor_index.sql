@@ -0,0 +1,3 @@
+-- the text search objects need the pg_trgm extension, so they live in db/full-text and are only created when
+-- task-management-system.search.mode is full-text
+create index task_executor_id_index on task (executor_id);
@@ -0,0 +1,5 @@
+create index task_created_at_id_index on task (created_at, id);
+
+create index usr_created_at_id_index on usr (created_at, id);
+
+create index usr_name_id_index on usr (name, id);
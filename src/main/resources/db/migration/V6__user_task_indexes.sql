@@ -0,0 +1,5 @@
+create index task_executor_id_created_at_id_index on task (executor_id, created_at, id);
+
+create index task_reviewer_id_created_at_id_index on task (reviewer_id, created_at, id);
+
+drop index task_executor_id_index;
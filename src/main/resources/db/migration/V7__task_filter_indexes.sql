@@ -0,0 +1,7 @@
+create index task_reviewer_id_status_deadline_index on task (reviewer_id, status, deadline);
+
+create index task_executor_id_status_deadline_index on task (executor_id, status, deadline);
+
+-- most listings look for unfinished work, which stays a small part of the table
+create index task_open_deadline_index on task (deadline)
+    where status in ('NOT_STARTED', 'IN_PROGRESS', 'WAITS_FOR_CHECKING', 'SENT_FOR_MODIFYING');
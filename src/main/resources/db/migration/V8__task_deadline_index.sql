@@ -0,0 +1,2 @@
+-- deadline ranges over every status; the open-status partial index only serves unfinished tasks
+create index task_deadline_index on task (deadline);
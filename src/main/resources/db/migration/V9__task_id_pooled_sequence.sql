@@ -0,0 +1,3 @@
+-- Hibernate's pooled optimizer hands out the 100 ids up to each value it draws; inserts relying on the column
+-- default still draw single values, which no block ever covers twice
+alter sequence task_id_seq increment by 100;
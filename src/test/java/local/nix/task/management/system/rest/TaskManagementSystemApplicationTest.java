@@ -1,26 +1,53 @@
 package local.nix.task.management.system.rest;
 import com.fasterxml.jackson.databind.JsonNode;
 import local.nix.task.management.system.rest.config.security.SecurityConstants;
+import local.nix.task.management.system.rest.config.security.password.BoundedPasswordEncoder;
+import local.nix.task.management.system.rest.model.page.CountMode;
 import local.nix.task.management.system.rest.model.task.request.SaveTaskRequest;
 import local.nix.task.management.system.rest.model.task.response.TaskResponse;
 import local.nix.task.management.system.rest.model.user.KnownAuthority;
+import local.nix.task.management.system.rest.model.user.User;
 import local.nix.task.management.system.rest.model.user.UserStatus;
 import local.nix.task.management.system.rest.model.user.request.SaveUserRequest;
 import local.nix.task.management.system.rest.model.user.response.UserResponse;
+import local.nix.task.management.system.rest.model.user.security.request.RefreshTokenRequest;
 import local.nix.task.management.system.rest.model.user.security.request.UserLoginRequest;
 import local.nix.task.management.system.rest.model.user.security.response.AccessTokenResponse;
+import local.nix.task.management.system.rest.repository.UserRepository;
+import local.nix.task.management.system.rest.repository.cache.UserCache;
+import local.nix.task.management.system.rest.service.RefreshTokenPruner;
 import local.nix.task.management.system.rest.service.TaskService;
+import local.nix.task.management.system.rest.service.UserService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.*;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.client.RestTemplate;
+
+import javax.persistence.EntityManagerFactory;
 import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
 
 
 import static org.junit.Assert.*;
@@ -37,6 +64,33 @@ public class TaskManagementSystemApplicationTest {
     @Autowired
     private TestRestTemplate restTemplate;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private RefreshTokenPruner refreshTokenPruner;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BoundedPasswordEncoder passwordEncoder;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
     @Test
     void testContextLoads() {
         assertNotEquals(0, port);
@@ -237,7 +291,8 @@ public class TaskManagementSystemApplicationTest {
                 new RestTemplate(new HttpComponentsClientHttpRequestFactory());
 
         ResponseEntity<TaskResponse> taskResponseResponseEntity1 =
-                restTemplate1.exchange(tasksUrl() + "/1/take", HttpMethod.PATCH, httpEntity, TaskResponse.class);
+                restTemplate1.exchange(tasksUrl() + "/" + taskResponseResponseEntity.getBody().getId() + "/take",
+                        HttpMethod.PATCH, httpEntity, TaskResponse.class);
 
         TaskResponse taskResponse = taskResponseResponseEntity1.getBody();
         assertEquals(name, taskResponse.getExecutor());
@@ -274,6 +329,465 @@ public class TaskManagementSystemApplicationTest {
 
 
 
+    @Test
+    void refreshTokenRotationTest() {
+        String username = "refresh_test_user";
+        String password = "12345678";
+        createUser(username, password, "Refresh Test User");
+        String first = login(username, password).getBody().getRefreshToken();
+
+        ResponseEntity<AccessTokenResponse> rotated = refresh(first);
+        assertEquals(HttpStatus.OK, rotated.getStatusCode());
+        String second = rotated.getBody().getRefreshToken();
+        assertEquals(HttpStatus.OK, refresh(second).getStatusCode());
+
+        assertEquals(HttpStatus.UNAUTHORIZED, refresh(first).getStatusCode());
+        assertEquals(Integer.valueOf(0), jdbcTemplate.queryForObject(
+                "select count(*) from refresh_token rt inner join usr u on u.id = rt.user_id where u.username = ?",
+                Integer.class, username));
+    }
+
+    @Test
+    void pruneRefreshTokensTest() {
+        String username = "prune_test_user";
+        String password = "12345678";
+        createUser(username, password, "Prune Test User");
+        assertEquals(HttpStatus.OK, login(username, password).getStatusCode());
+        Long userId = jdbcTemplate.queryForObject("select id from usr where username = ?", Long.class, username);
+        UUID expired = UUID.randomUUID();
+        jdbcTemplate.update("insert into refresh_token (family, value, user_id, issued_at, expire_at) " +
+                        "values (?, ?, ?, ?, ?)", expired, expired, userId, Timestamp.from(Instant.now().minus(Duration.ofDays(4))),
+                Timestamp.from(Instant.now().minus(Duration.ofDays(1))));
+
+        assertTrue(refreshTokenPruner.prune() >= 1);
+
+        assertEquals(Integer.valueOf(0), jdbcTemplate.queryForObject(
+                "select count(*) from refresh_token where family = ?", Integer.class, expired));
+        assertEquals(Integer.valueOf(1), jdbcTemplate.queryForObject(
+                "select count(*) from refresh_token where user_id = ?", Integer.class, userId));
+    }
+
+    @Test
+    void currentUserFromTokenTest() {
+        String username = "current_test_user";
+        String password = "12345678";
+        long id = createUser(username, password, "Current Test User").getBody().getId();
+        String accessToken = login(username, password).getBody().getAccessToken();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", SecurityConstants.AUTH_TOKEN_PREFIX + accessToken);
+        ResponseEntity<UserResponse> me =
+                restTemplate.exchange(usersUrl() + "/me", HttpMethod.GET, new HttpEntity<String>(headers), UserResponse.class);
+
+        assertEquals(HttpStatus.OK, me.getStatusCode());
+        assertEquals(Long.valueOf(id), me.getBody().getId());
+        assertEquals(username, me.getBody().getUsername());
+    }
+
+    @Test
+    void suspendedUserAccessTokenTest() {
+        String username = "suspended_test_user";
+        String password = "12345678";
+        long id = createUser(username, password, "Suspended Test User").getBody().getId();
+        String accessToken = login(username, password).getBody().getAccessToken();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", SecurityConstants.AUTH_TOKEN_PREFIX + accessToken);
+        HttpEntity<String> entity = new HttpEntity<String>(headers);
+        assertEquals(HttpStatus.OK,
+                restTemplate.exchange(usersUrl() + "/" + id, HttpMethod.GET, entity, UserResponse.class).getStatusCode());
+
+        userService.changeStatusById(id, UserStatus.SUSPENDED);
+
+        assertEquals(HttpStatus.FORBIDDEN,
+                restTemplate.exchange(usersUrl() + "/" + id, HttpMethod.GET, entity, JsonNode.class).getStatusCode());
+    }
+
+    @Test
+    void configuredPasswordStrengthTest() {
+        String encoded = passwordEncoder.encode("password");
+
+        assertTrue(encoded.startsWith("{bcrypt}$2a$04$"));
+        assertTrue(passwordEncoder.matches("password", encoded));
+    }
+
+    @Test
+    void loginRateLimitTest() {
+        for (int i = 0; i < 10; i++) {
+            assertEquals(HttpStatus.UNAUTHORIZED, login("rate_limited_user", "wrong_password").getStatusCode());
+        }
+
+        ResponseEntity<AccessTokenResponse> limited = login("rate_limited_user", "wrong_password");
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, limited.getStatusCode());
+        assertTrue(Long.parseLong(limited.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)) > 0);
+        assertEquals(HttpStatus.UNAUTHORIZED, login("other_rate_limited_user", "wrong_password").getStatusCode());
+
+        assertEquals(HttpStatus.PAYLOAD_TOO_LARGE, login("oversized_login", "x".repeat(5000)).getStatusCode());
+    }
+
+    @Test
+    void searchTasksTest() {
+        String executorName = "Ёжиков Пётр Семёнович";
+        createUser("search_test_user", "12345678", executorName);
+        String accessToken = login("granichka", "extravaganza").getBody().getAccessToken();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(Arrays.asList(MediaType.APPLICATION_JSON));
+        headers.set("Authorization", SecurityConstants.AUTH_TOKEN_PREFIX + accessToken);
+        String reviewer = "Граница Юлия Андреевна";
+        createTask("Подготовить Quarterly_Report", "2020-10-17 18:00:00", null, reviewer, headers);
+        createTask("Проверить отчёт", "2020-10-17 18:00:00", executorName, reviewer, headers);
+
+        JsonNode unassigned = restTemplate.exchange(tasksUrl() + "/search?keyword=quarterly_report", HttpMethod.GET,
+                new HttpEntity<String>(headers), JsonNode.class).getBody();
+        assertEquals(1, unassigned.get("totalElements").asInt());
+        assertEquals("Подготовить Quarterly_Report", unassigned.get("content").get(0).get("text").asText());
+
+        JsonNode byExecutor = restTemplate.exchange(tasksUrl() + "/search?keyword=ПЁТР", HttpMethod.GET,
+                new HttpEntity<String>(headers), JsonNode.class).getBody();
+        assertEquals(1, byExecutor.get("totalElements").asInt());
+        assertEquals("Проверить отчёт", byExecutor.get("content").get(0).get("text").asText());
+    }
+
+    @Test
+    void cursorPaginationTest() {
+        String accessToken = login("granichka", "extravaganza").getBody().getAccessToken();
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(Arrays.asList(MediaType.APPLICATION_JSON));
+        headers.set("Authorization", SecurityConstants.AUTH_TOKEN_PREFIX + accessToken);
+        HttpEntity<String> entity = new HttpEntity<>(headers);
+        for (int i = 0; i < 5; i++) {
+            createTask("Keyset task " + i, "2020-10-17 18:00:00", null, "Граница Юлия Андреевна", headers);
+        }
+
+        Set<Long> ids = new HashSet<>();
+        int pages = 0;
+        String next = "";
+        do {
+            JsonNode page = restTemplate.exchange(tasksUrl() + "?size=2&after={after}", HttpMethod.GET, entity,
+                    JsonNode.class, next).getBody();
+            page.get("items").forEach(task -> assertTrue(ids.add(task.get("id").asLong())));
+            next = page.get("next").isNull() ? null : page.get("next").asText();
+            pages++;
+        } while (next != null);
+        long total = restTemplate.exchange(tasksUrl(), HttpMethod.GET, entity, JsonNode.class).getBody()
+                .get("totalElements").asLong();
+        assertEquals(total, ids.size());
+        assertEquals((total + 1) / 2, pages);
+
+        JsonNode found = restTemplate.exchange(tasksUrl() + "/search?keyword=keyset task&size=4&after=",
+                HttpMethod.GET, entity, JsonNode.class).getBody();
+        assertEquals(4, found.get("items").size());
+        found = restTemplate.exchange(tasksUrl() + "/search?keyword=keyset task&size=4&after={after}",
+                HttpMethod.GET, entity, JsonNode.class, found.get("next").asText()).getBody();
+        assertEquals("Keyset task 4", found.get("items").get(0).get("text").asText());
+        assertTrue(found.get("next").isNull());
+
+        for (int i = 0; i < 3; i++) {
+            createUser("keyset_namesake_" + i, "12345678", "Keyset Namesake");
+        }
+        JsonNode first = restTemplate.exchange(usersUrl() + "/search?term=Keyset&size=2&after=", HttpMethod.GET,
+                entity, JsonNode.class).getBody();
+        assertEquals(2, first.get("items").size());
+        JsonNode second = restTemplate.exchange(usersUrl() + "/search?term=Keyset&size=2&after={after}",
+                HttpMethod.GET, entity, JsonNode.class, first.get("next").asText()).getBody();
+        assertEquals(1, second.get("items").size());
+        assertTrue(second.get("next").isNull());
+
+        assertEquals(HttpStatus.BAD_REQUEST, restTemplate.exchange(tasksUrl() + "?after=not-a-cursor",
+                HttpMethod.GET, entity, JsonNode.class).getStatusCode());
+
+        for (int i = 0; i < 3; i++) {
+            createTask("Filtered keyset task " + i, "2020-01-02 03:04:05", null, "Граница Юлия Андреевна", headers);
+        }
+        String filtered = tasksUrl() + "?deadlineFrom=2020-01-02T03:04:05&deadlineTo=2020-01-02T03:04:05&size=2";
+        JsonNode firstFiltered = restTemplate.exchange(filtered + "&after=", HttpMethod.GET, entity,
+                JsonNode.class).getBody();
+        assertEquals("Filtered keyset task 0", firstFiltered.get("items").get(0).get("text").asText());
+        assertEquals(2, firstFiltered.get("items").size());
+        JsonNode secondFiltered = restTemplate.exchange(filtered + "&after={after}", HttpMethod.GET, entity,
+                JsonNode.class, firstFiltered.get("next").asText()).getBody();
+        assertEquals(1, secondFiltered.get("items").size());
+        assertEquals("Filtered keyset task 2", secondFiltered.get("items").get(0).get("text").asText());
+        assertTrue(secondFiltered.get("next").isNull());
+
+        assertEquals(HttpStatus.BAD_REQUEST, restTemplate.exchange(tasksUrl() + "?after=&sort=text",
+                HttpMethod.GET, entity, JsonNode.class).getStatusCode());
+    }
+
+    @Test
+    void countModesTest() {
+        String accessToken = login("granichka", "extravaganza").getBody().getAccessToken();
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", SecurityConstants.AUTH_TOKEN_PREFIX + accessToken);
+        HttpEntity<String> entity = new HttpEntity<>(headers);
+        for (int i = 0; i < 3; i++) {
+            createUser("count_mode_user_" + i, "12345678", "Count Mode User " + i);
+        }
+
+        JsonNode exact = restTemplate.exchange(usersUrl() + "?size=1", HttpMethod.GET, entity, JsonNode.class)
+                .getBody();
+        assertTrue(exact.get("totalElements").asLong() >= 4);
+
+        JsonNode estimated = restTemplate.exchange(usersUrl() + "?size=1&count=estimated", HttpMethod.GET, entity,
+                JsonNode.class).getBody();
+        assertTrue(estimated.get("totalElements").asLong() >= 2);
+
+        JsonNode slice = restTemplate.exchange(usersUrl() + "/search?term=Count Mode&size=2&count=none",
+                HttpMethod.GET, entity, JsonNode.class).getBody();
+        assertNull(slice.get("totalElements"));
+        assertEquals(2, slice.get("numberOfElements").asInt());
+        assertFalse(slice.get("last").asBoolean());
+
+        JsonNode lastSlice = restTemplate.exchange(usersUrl() + "/search?term=Count Mode&size=2&page=1&count=none",
+                HttpMethod.GET, entity, JsonNode.class).getBody();
+        assertTrue(lastSlice.get("last").asBoolean());
+    }
+
+    @Test
+    void taskPageIsOneQueryTest() {
+        Long reviewerId = jdbcTemplate.queryForObject("select id from usr where username = ?", Long.class,
+                "granichka");
+        for (int i = 0; i < 100; i++) {
+            jdbcTemplate.update("insert into usr (username, password, name, status, created_at) "
+                    + "values (?, 'password', ?, 'ACTIVE', ?)", "projection_user_" + i, "Projection User " + i,
+                    Timestamp.from(Instant.now()));
+            Long executorId = jdbcTemplate.queryForObject("select id from usr where username = ?", Long.class,
+                    "projection_user_" + i);
+            jdbcTemplate.update("insert into task (text, status, created_at, executor_id, reviewer_id) "
+                    + "values (?, 'NOT_STARTED', ?, ?, ?)", "Projection task " + i, Timestamp.from(Instant.now()),
+                    executorId, reviewerId);
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Slice<TaskResponse> page = taskService.list(PageRequest.of(0, 100), CountMode.NONE);
+
+        assertEquals(100, page.getNumberOfElements());
+        assertTrue(page.getContent().stream().allMatch(task -> task.getReviewer() != null));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void userAuthoritiesFetchTest() {
+        for (int i = 0; i < 3; i++) {
+            createUser("authorities_fetch_user_" + i, "12345678", "Authorities Fetch User " + i);
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        UserDetails details = userService.loadUserByUsername("authorities_fetch_user_0");
+
+        assertTrue(details.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_USER")));
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        statistics.clear();
+        int authorities = transactionTemplate.execute(status -> userRepository.findAllBy(PageRequest.of(0, 100))
+                .stream()
+                .mapToInt(user -> user.getAuthorities().size())
+                .sum());
+
+        assertTrue(authorities >= 4);
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void userCacheTest() {
+        long id = createUser("cached_user", "12345678", "Cached User").getBody().getId();
+        String accessToken = login("cached_user", "12345678").getBody().getAccessToken();
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", SecurityConstants.AUTH_TOKEN_PREFIX + accessToken);
+        HttpEntity<String> entity = new HttpEntity<>(headers);
+        restTemplate.exchange(usersUrl() + "/me", HttpMethod.GET, entity, UserResponse.class);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        ResponseEntity<UserResponse> me = restTemplate.exchange(usersUrl() + "/me", HttpMethod.GET, entity, UserResponse.class);
+
+        assertEquals("cached_user", me.getBody().getUsername());
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        String adminToken = login("granichka", "extravaganza").getBody().getAccessToken();
+        HttpHeaders adminHeaders = new HttpHeaders();
+        adminHeaders.setContentType(MediaType.APPLICATION_JSON);
+        adminHeaders.set("Authorization", SecurityConstants.AUTH_TOKEN_PREFIX + adminToken);
+        restTemplate.exchange(usersUrl() + "/" + id, HttpMethod.PATCH,
+                new HttpEntity<>("{\"username\":\"cached_user_renamed\"}", adminHeaders), UserResponse.class);
+
+        ResponseEntity<UserResponse> renamed = restTemplate.exchange(usersUrl() + "/" + id, HttpMethod.GET,
+                new HttpEntity<>(adminHeaders), UserResponse.class);
+        assertEquals("cached_user_renamed", renamed.getBody().getUsername());
+        assertThrows(UsernameNotFoundException.class, () -> userService.loadUserByUsername("cached_user"));
+
+        String actuatorUrl = "http://localhost:" + port + "/actuator";
+        ResponseEntity<JsonNode> hits = restTemplate.exchange(actuatorUrl + "/metrics/cache.gets?tag=cache:users",
+                HttpMethod.GET, new HttpEntity<>(adminHeaders), JsonNode.class);
+        assertEquals(HttpStatus.OK, hits.getStatusCode());
+        assertTrue(hits.getBody().get("measurements").get(0).get("value").asDouble() > 0);
+        assertEquals(HttpStatus.FORBIDDEN, restTemplate.getForEntity(actuatorUrl + "/metrics", String.class)
+                .getStatusCode());
+        assertEquals(HttpStatus.OK, restTemplate.getForEntity(actuatorUrl + "/health", String.class).getStatusCode());
+    }
+
+    @Test
+    void userCacheRacingSuspensionTest() throws Exception {
+        long id = createUser("racing_user", "12345678", "Racing User").getBody().getId();
+        CountDownLatch read = new CountDownLatch(1);
+        CountDownLatch suspended = new CountDownLatch(1);
+        CompletableFuture<Optional<User>> lookup = CompletableFuture.supplyAsync(() ->
+                userCache.findByUsername("racing_user", username -> {
+                    Optional<User> user = userRepository.findUserByUsername(username);
+                    read.countDown();
+                    try {
+                        suspended.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return user;
+                }));
+
+        read.await();
+        userService.changeStatusById(id, UserStatus.SUSPENDED);
+        suspended.countDown();
+
+        assertEquals(UserStatus.ACTIVE, lookup.get().orElseThrow().getStatus());
+        assertNotEquals(HttpStatus.OK, login("racing_user", "12345678").getStatusCode());
+    }
+
+    @Test
+    void ambiguousUserNameTest() {
+        createUser("namesake_1", "12345678", "Namesake");
+        String adminToken = login("granichka", "extravaganza").getBody().getAccessToken();
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", SecurityConstants.AUTH_TOKEN_PREFIX + adminToken);
+
+        assertEquals(HttpStatus.CREATED, createTask("Namesake task", "2030-01-01 12:00:00", "Namesake",
+                "Граница Юлия Андреевна", headers).getStatusCode());
+
+        createUser("namesake_2", "12345678", "Namesake");
+
+        assertEquals(HttpStatus.CONFLICT, createTask("Namesake task", "2030-01-01 12:00:00", "Namesake",
+                "Граница Юлия Андреевна", headers).getStatusCode());
+    }
+
+    @Test
+    void bulkCreateTasksTest() {
+        createUser("bulk_user", "12345678", "Bulk User");
+        String adminToken = login("granichka", "extravaganza").getBody().getAccessToken();
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("application/x-ndjson"));
+        headers.set("Authorization", SecurityConstants.AUTH_TOKEN_PREFIX + adminToken);
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            body.append("{\"text\":\"Bulk task ").append(i).append("\",\"deadline\":\"2030-01-01 12:00:00\",")
+                    .append("\"executor\":\"Bulk User\",\"reviewer\":\"Граница Юлия Андреевна\"}\n");
+        }
+        body.append("{\"text\":\"Bulk task\",\"deadline\":\"tomorrow\",\"reviewer\":\"Bulk User\"}\n");
+        body.append("{\"text\":\"Bulk task\",\"deadline\":\"2030-01-01 12:00:00\",\"reviewer\":\"Nobody\"}\n");
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        ResponseEntity<JsonNode> response = restTemplate.exchange(tasksUrl() + "/bulk", HttpMethod.POST,
+                new HttpEntity<>(body.toString(), headers), JsonNode.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        JsonNode results = response.getBody();
+        assertEquals(1002, results.size());
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(201, results.get(i).get("status").asInt());
+            ids.add(results.get(i).get("id").asLong());
+        }
+        assertEquals(1000, ids.size());
+        assertEquals(400, results.get(1000).get("status").asInt());
+        assertEquals(404, results.get(1001).get("status").asInt());
+        // one name query, the sequence every 100 ids and the inserts in batches of 100
+        assertTrue(statistics.getPrepareStatementCount() <= 1 + 1000 / 100 + 1000 / 100);
+        assertEquals(1000, (int) jdbcTemplate.queryForObject(
+                "select count(*) from task where text like 'Bulk task %'", Integer.class));
+
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        ResponseEntity<JsonNode> array = restTemplate.exchange(tasksUrl() + "/bulk", HttpMethod.POST,
+                new HttpEntity<>("[{\"text\":\"Array task\",\"deadline\":\"2030-01-01 12:00:00\","
+                        + "\"reviewer\":\"Bulk User\"}]", headers), JsonNode.class);
+        assertEquals(201, array.getBody().get(0).get("status").asInt());
+
+        String userToken = login("bulk_user", "12345678").getBody().getAccessToken();
+        headers.set("Authorization", SecurityConstants.AUTH_TOKEN_PREFIX + userToken);
+        assertEquals(HttpStatus.FORBIDDEN, restTemplate.exchange(tasksUrl() + "/bulk", HttpMethod.POST,
+                new HttpEntity<>("[]", headers), JsonNode.class).getStatusCode());
+    }
+
+    @Test
+    void currentUserTasksTest() {
+        createUser("my_tasks_user", "12345678", "My Tasks User");
+        String adminToken = login("granichka", "extravaganza").getBody().getAccessToken();
+        HttpHeaders adminHeaders = new HttpHeaders();
+        adminHeaders.set("Authorization", SecurityConstants.AUTH_TOKEN_PREFIX + adminToken);
+        for (int i = 1; i <= 4; i++) {
+            createTask("My task " + i, "2030-01-0" + i + " 12:00:00", "My Tasks User", "Граница Юлия Андреевна",
+                    adminHeaders);
+        }
+        jdbcTemplate.update("update task set status = 'COMPLETED' where text = 'My task 4'");
+
+        String accessToken = login("my_tasks_user", "12345678").getBody().getAccessToken();
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", SecurityConstants.AUTH_TOKEN_PREFIX + accessToken);
+        HttpEntity<String> entity = new HttpEntity<>(headers);
+        String url = usersUrl() + "/me/tasks";
+
+        JsonNode all = restTemplate.exchange(url + "?size=3", HttpMethod.GET, entity, JsonNode.class).getBody();
+        assertEquals(4, all.get("totalElements").asInt());
+        assertEquals("My task 1", all.get("content").get(0).get("text").asText());
+
+        JsonNode open = restTemplate.exchange(url + "?status=NOT_STARTED&deadlineFrom=2030-01-02T00:00:00"
+                + "&sort=deadline,desc&count=none", HttpMethod.GET, entity, JsonNode.class).getBody();
+        assertEquals(2, open.get("numberOfElements").asInt());
+        assertEquals("My task 3", open.get("content").get(0).get("text").asText());
+        assertEquals("My task 2", open.get("content").get(1).get("text").asText());
+
+        JsonNode completed = restTemplate.exchange(url + "?status=COMPLETED&status=ACCEPTED", HttpMethod.GET, entity,
+                JsonNode.class).getBody();
+        assertEquals(1, completed.get("totalElements").asInt());
+        assertEquals("My task 4", completed.get("content").get(0).get("text").asText());
+
+        assertEquals(HttpStatus.BAD_REQUEST, restTemplate.exchange(url + "?sort=password", HttpMethod.GET, entity,
+                JsonNode.class).getStatusCode());
+    }
+
+    @Test
+    void filterTasksTest() {
+        long executorId = createUser("filter_test_user", "12345678", "Filter Test User").getBody().getId();
+        String accessToken = login("granichka", "extravaganza").getBody().getAccessToken();
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", SecurityConstants.AUTH_TOKEN_PREFIX + accessToken);
+        HttpEntity<String> entity = new HttpEntity<>(headers);
+        Instant createdFrom = Instant.now().minusSeconds(1);
+        for (int i = 1; i <= 3; i++) {
+            createTask("Filtered task " + i, "2031-02-0" + i + " 09:00:00", "Filter Test User",
+                    "Граница Юлия Андреевна", headers);
+        }
+        jdbcTemplate.update("update task set status = 'IN_PROGRESS' where text = 'Filtered task 2'");
+
+        JsonNode byExecutor = restTemplate.exchange(tasksUrl() + "?executorId={id}&createdFrom={from}",
+                HttpMethod.GET, entity, JsonNode.class, executorId, createdFrom.toString()).getBody();
+        assertEquals(3, byExecutor.get("totalElements").asInt());
+
+        JsonNode narrowed = restTemplate.exchange(tasksUrl() + "?executorId={id}&status=NOT_STARTED"
+                        + "&deadlineFrom=2031-02-02T00:00:00&deadlineTo=2031-02-28T00:00:00",
+                HttpMethod.GET, entity, JsonNode.class, executorId).getBody();
+        assertEquals(1, narrowed.get("totalElements").asInt());
+        assertEquals("Filtered task 3", narrowed.get("content").get(0).get("text").asText());
+
+        JsonNode future = restTemplate.exchange(tasksUrl() + "?executorId={id}&createdFrom={from}",
+                HttpMethod.GET, entity, JsonNode.class, executorId, Instant.now().plusSeconds(60).toString())
+                .getBody();
+        assertEquals(0, future.get("totalElements").asInt());
+
+        assertEquals(HttpStatus.BAD_REQUEST, restTemplate.exchange(tasksUrl() + "?status=UNKNOWN",
+                HttpMethod.GET, entity, JsonNode.class).getStatusCode());
+    }
+
     private ResponseEntity<UserResponse> createUser(String username, String password, String name) {
         String url = usersUrl();
         SaveUserRequest requestBody = new SaveUserRequest();
@@ -306,6 +820,12 @@ public class TaskManagementSystemApplicationTest {
         return restTemplate.postForEntity(url, requestBody, AccessTokenResponse.class);
     }
 
+    private ResponseEntity<AccessTokenResponse> refresh(String refreshToken) {
+        RefreshTokenRequest requestBody = new RefreshTokenRequest();
+        requestBody.setRefreshToken(refreshToken);
+        return restTemplate.postForEntity(baseUrl() + "/token/refresh", requestBody, AccessTokenResponse.class);
+    }
+
     private String baseUrl() {
         return "http://localhost:" + port + "/api/v1";
     }
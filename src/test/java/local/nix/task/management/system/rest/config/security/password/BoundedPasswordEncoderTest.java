@@ -0,0 +1,107 @@
+package local.nix.task.management.system.rest.config.security.password;
+
+import local.nix.task.management.system.rest.exception.auth.PasswordHashingRejectedException;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class BoundedPasswordEncoderTest {
+
+    @Test
+    void rejectsWhenThreadsAndQueueAreFullTest() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(new BlockingEncoder(release), 1, 1, 4);
+        try {
+            CompletableFuture<String> running = encoder.encodeAsync("first");
+            CompletableFuture<String> queued = encoder.encodeAsync("second");
+
+            assertThatExceptionOfType(PasswordHashingRejectedException.class)
+                    .isThrownBy(() -> encoder.encode("third"));
+
+            release.countDown();
+            assertThat(running.join()).isEqualTo("{hashed}first");
+            assertThat(queued.join()).isEqualTo("{hashed}second");
+            assertThat(encoder.matches("third", encoder.encode("third"))).isTrue();
+        } finally {
+            release.countDown();
+            encoder.destroy();
+        }
+    }
+
+    @Test
+    void keepsWorkersAvailableWhileHashesQueueTest() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(new BlockingEncoder(release), 1, 64, 2);
+        ExecutorService workers = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> logins = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                String password = "login" + i;
+                logins.add(workers.submit(() -> encoder.encode(password)));
+            }
+
+            // the queue has room, but only two workers may wait on it; the others come back at once
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (logins.stream().filter(Future::isDone).count() < 2 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            List<Future<String>> waiting = new ArrayList<>();
+            for (Future<String> login : logins) {
+                if (!login.isDone()) {
+                    waiting.add(login);
+                    continue;
+                }
+                assertThatExceptionOfType(ExecutionException.class)
+                        .isThrownBy(login::get)
+                        .withCauseInstanceOf(PasswordHashingRejectedException.class);
+            }
+            assertThat(waiting).hasSize(2);
+            assertThat(workers.submit(() -> "other request").get(5, TimeUnit.SECONDS)).isEqualTo("other request");
+
+            release.countDown();
+            for (Future<String> login : waiting) {
+                assertThat(login.get()).startsWith("{hashed}login");
+            }
+        } finally {
+            release.countDown();
+            workers.shutdownNow();
+            encoder.destroy();
+        }
+    }
+
+    private static final class BlockingEncoder implements PasswordEncoder {
+
+        private final CountDownLatch release;
+
+        private BlockingEncoder(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "{hashed}" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encode(rawPassword).equals(encodedPassword);
+        }
+    }
+}
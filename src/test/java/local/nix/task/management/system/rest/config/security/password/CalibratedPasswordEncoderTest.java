@@ -0,0 +1,47 @@
+package local.nix.task.management.system.rest.config.security.password;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CalibratedPasswordEncoderTest {
+
+    @Test
+    void encodesWithAlgorithmAndCostTest() {
+        CalibratedPasswordEncoder encoder = new CalibratedPasswordEncoder(5);
+
+        String encoded = encoder.encode("password");
+
+        assertThat(encoded).startsWith("{bcrypt}$2a$05$");
+        assertThat(encoder.matches("password", encoded)).isTrue();
+        assertThat(encoder.matches("wrong", encoded)).isFalse();
+        assertThat(encoder.upgradeEncoding(encoded)).isFalse();
+    }
+
+    @Test
+    void matchesAndUpgradesLegacyHashesTest() {
+        CalibratedPasswordEncoder encoder = new CalibratedPasswordEncoder(5);
+        String legacy = new BCryptPasswordEncoder(4).encode("password");
+
+        assertThat(encoder.matches("password", legacy)).isTrue();
+        assertThat(encoder.upgradeEncoding(legacy)).isTrue();
+    }
+
+    @Test
+    void upgradesLowerCostAndDowngradesOnlyMuchHigherCostTest() {
+        CalibratedPasswordEncoder encoder = new CalibratedPasswordEncoder(5);
+
+        assertThat(encoder.upgradeEncoding(new CalibratedPasswordEncoder(4).encode("password"))).isTrue();
+        assertThat(encoder.upgradeEncoding(new CalibratedPasswordEncoder(6).encode("password"))).isFalse();
+        assertThat(encoder.upgradeEncoding(new CalibratedPasswordEncoder(7).encode("password"))).isTrue();
+    }
+
+    @Test
+    void calibrationStaysWithinBoundsTest() {
+        assertThat(CalibratedPasswordEncoder.calibrateStrength(Duration.ofNanos(1), 5, 8)).isEqualTo(5);
+        assertThat(CalibratedPasswordEncoder.calibrateStrength(Duration.ofHours(1), 4, 6)).isEqualTo(6);
+    }
+}
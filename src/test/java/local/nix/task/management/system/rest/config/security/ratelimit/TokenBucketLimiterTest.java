@@ -0,0 +1,87 @@
+package local.nix.task.management.system.rest.config.security.ratelimit;
+
+import local.nix.task.management.system.rest.config.security.properties.TaskManagementSystemTokenBucketProperties;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TokenBucketLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private final TokenBucketLimiter limiter = new TokenBucketLimiter(
+            new TaskManagementSystemTokenBucketProperties(3, Duration.ofSeconds(3)), 2, Duration.ofSeconds(2),
+            TokenBucketLimiter.WhenFull.REJECT, clock::get);
+
+    @Test
+    void allowsBurstThenWaitsForRefillTest() {
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire("client")).isZero();
+        }
+
+        assertThat(limiter.tryAcquire("client")).isEqualTo(Duration.ofSeconds(1).toNanos());
+        assertThat(limiter.tryAcquire("other")).isZero();
+
+        clock.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertThat(limiter.tryAcquire("client")).isZero();
+        assertThat(limiter.tryAcquire("client")).isPositive();
+    }
+
+    @Test
+    void sweepsFullBucketsTest() {
+        limiter.tryAcquire("first");
+        limiter.tryAcquire("second");
+        limiter.tryAcquire("second");
+
+        clock.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertThat(limiter.sweep()).isEqualTo(1);
+        assertThat(limiter.size()).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsNewKeysWhenFullTest() {
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("first");
+            limiter.tryAcquire("second");
+        }
+
+        assertThat(limiter.tryAcquire("third")).isEqualTo(Duration.ofSeconds(2).toNanos());
+        assertThat(limiter.size()).isEqualTo(2);
+        assertThat(limiter.tryAcquire("first")).isPositive();
+    }
+
+    @Test
+    void sweepsAtMostOncePerIntervalWhenFullTest() {
+        limiter.tryAcquire("first");
+        limiter.tryAcquire("second");
+        assertThat(limiter.tryAcquire("third")).isPositive();
+
+        // both buckets are full again, but the sweep that found nothing to drop ran a second ago
+        clock.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertThat(limiter.tryAcquire("third")).isEqualTo(Duration.ofSeconds(1).toNanos());
+        assertThat(limiter.size()).isEqualTo(2);
+
+        clock.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertThat(limiter.tryAcquire("third")).isZero();
+        assertThat(limiter.size()).isEqualTo(1);
+    }
+
+    @Test
+    void admitsFreshKeysWhenFullIfToldToTest() {
+        TokenBucketLimiter names = new TokenBucketLimiter(
+                new TaskManagementSystemTokenBucketProperties(3, Duration.ofSeconds(3)), 2, Duration.ofSeconds(2),
+                TokenBucketLimiter.WhenFull.ADMIT, clock::get);
+        for (int i = 0; i < 3; i++) {
+            names.tryAcquire("flood-1");
+            names.tryAcquire("flood-2");
+        }
+
+        assertThat(names.tryAcquire("legitimate")).isZero();
+        assertThat(names.tryAcquire("legitimate")).isZero();
+        assertThat(names.size()).isEqualTo(2);
+        assertThat(names.tryAcquire("flood-1")).isPositive();
+    }
+}
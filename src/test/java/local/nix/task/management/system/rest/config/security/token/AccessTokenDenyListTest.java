@@ -0,0 +1,37 @@
+package local.nix.task.management.system.rest.config.security.token;
+
+import local.nix.task.management.system.rest.model.user.event.UserAccessRevokedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AccessTokenDenyListTest {
+
+    @Test
+    void deniesTokensIssuedUntilRevocationTest() {
+        AccessTokenDenyList denyList = new AccessTokenDenyList(Duration.ofMinutes(10));
+        Instant revokedAt = Instant.ofEpochSecond(1_600_000_000L);
+
+        denyList.onUserAccessRevoked(new UserAccessRevokedEvent("user", revokedAt));
+
+        assertThat(denyList.isDenied("user", revokedAt.getEpochSecond() - 60)).isTrue();
+        assertThat(denyList.isDenied("user", revokedAt.getEpochSecond())).isTrue();
+        assertThat(denyList.isDenied("user", revokedAt.getEpochSecond() + 1)).isFalse();
+        assertThat(denyList.isDenied("other", revokedAt.getEpochSecond() - 60)).isFalse();
+    }
+
+    @Test
+    void keepsLatestRevocationTest() {
+        AccessTokenDenyList denyList = new AccessTokenDenyList(Duration.ofMinutes(10));
+        Instant revokedAt = Instant.ofEpochSecond(1_600_000_000L);
+
+        denyList.deny("user", revokedAt);
+        denyList.deny("user", revokedAt.minusSeconds(30));
+
+        assertThat(denyList.isDenied("user", revokedAt.getEpochSecond())).isTrue();
+        assertThat(denyList.size()).isEqualTo(1);
+    }
+}
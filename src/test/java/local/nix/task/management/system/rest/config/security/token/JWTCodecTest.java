@@ -0,0 +1,113 @@
+package local.nix.task.management.system.rest.config.security.token;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import local.nix.task.management.system.rest.config.security.SecurityConstants;
+import local.nix.task.management.system.rest.model.user.KnownAuthority;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class JWTCodecTest {
+
+    private static final String SECRET = "eitu9aichae7eitee9XiciweishohW3pieshaifasosai5xie9Oomobulohyu8ie";
+
+    private JWTCodec codec;
+
+    private Algorithm algorithm;
+
+    @BeforeEach
+    void setUp() {
+        codec = new JWTCodec(SECRET);
+        algorithm = Algorithm.HMAC512(SECRET.getBytes());
+    }
+
+    @Test
+    void accessTokenIsReadableByAuth0Test() {
+        long now = System.currentTimeMillis();
+        String token = codec.encodeAccessToken(42, "Юлия \"quoted\"", EnumSet.allOf(KnownAuthority.class),
+                now, now + 60_000);
+
+        DecodedJWT decoded = JWT.require(algorithm).build().verify(token);
+        assertThat(decoded.getSubject()).isEqualTo("Юлия \"quoted\"");
+        assertThat(decoded.getClaim(SecurityConstants.USER_ID_CLAIM).asLong()).isEqualTo(42L);
+        assertThat(decoded.getClaim(SecurityConstants.AUTHORITY_MASK_CLAIM).asInt()).isEqualTo(0b11);
+        assertThat(decoded.getExpiresAt()).isEqualTo(new Date(now + 60_000 - (now + 60_000) % 1000));
+    }
+
+    @Test
+    void accessTokenRoundTripTest() {
+        long now = System.currentTimeMillis();
+        String token = codec.encodeAccessToken(42, "token_test_user", EnumSet.of(KnownAuthority.ROLE_ADMIN),
+                now, now + 60_000);
+
+        DecodedToken decoded = codec.decode(token);
+        assertThat(decoded.getUserId()).isEqualTo(42L);
+        assertThat(decoded.getSubject()).isEqualTo("token_test_user");
+        assertThat(decoded.getAuthorities()).containsExactly(KnownAuthority.ROLE_ADMIN);
+    }
+
+    @Test
+    void decodesTokensSignedByAuth0Test() {
+        UUID id = UUID.randomUUID();
+        long now = System.currentTimeMillis();
+        String token = JWT.create()
+                .withSubject("token_test_user")
+                .withJWTId(id.toString())
+                .withIssuedAt(new Date(now))
+                .withExpiresAt(new Date(now + 60_000))
+                .withArrayClaim(SecurityConstants.AUTHORITIES_CLAIM, new String[]{"ROLE_USER"})
+                .sign(algorithm);
+
+        DecodedToken decoded = codec.decode(token);
+        assertThat(decoded.getSubject()).isEqualTo("token_test_user");
+        assertThat(decoded.getId()).isEqualTo(id.toString());
+        assertThat(decoded.getAuthorities()).containsExactly(KnownAuthority.ROLE_USER);
+        assertThat(decoded.getUserId()).isNull();
+        assertThat(decoded.getExpiresAt()).isEqualTo((now + 60_000) / 1000);
+    }
+
+    @Test
+    void refreshTokenRoundTripTest() {
+        UUID id = UUID.randomUUID();
+        UUID family = UUID.randomUUID();
+        long now = System.currentTimeMillis();
+        String token = codec.encodeRefreshToken("token_test_user", id, family, now, now + 60_000);
+
+        DecodedToken decoded = codec.decode(token);
+        assertThat(decoded.getId()).isEqualTo(id.toString());
+        assertThat(decoded.getFamily()).isEqualTo(family.toString());
+        assertThat(decoded.getAuthorities()).isEmpty();
+    }
+
+    @Test
+    void rejectsInvalidTokensTest() {
+        long now = System.currentTimeMillis();
+        String token = codec.encodeAccessToken(1, "token_test_user", EnumSet.of(KnownAuthority.ROLE_USER),
+                now, now + 60_000);
+
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+        assertThatExceptionOfType(JWTVerificationException.class).isThrownBy(() -> codec.decode(tampered));
+
+        String otherSecret = new JWTCodec("another-secret").encodeAccessToken(1, "token_test_user",
+                EnumSet.of(KnownAuthority.ROLE_ADMIN), now, now + 60_000);
+        assertThatExceptionOfType(JWTVerificationException.class).isThrownBy(() -> codec.decode(otherSecret));
+
+        String expired = codec.encodeAccessToken(1, "token_test_user", EnumSet.of(KnownAuthority.ROLE_USER),
+                now - 120_000, now - 60_000);
+        assertThatExceptionOfType(JWTVerificationException.class).isThrownBy(() -> codec.decode(expired));
+
+        String unsigned = JWT.create().withSubject("token_test_user").sign(Algorithm.none());
+        assertThatExceptionOfType(JWTVerificationException.class).isThrownBy(() -> codec.decode(unsigned));
+
+        assertThatExceptionOfType(JWTVerificationException.class).isThrownBy(() -> codec.decode("not.a.jwt"));
+    }
+}
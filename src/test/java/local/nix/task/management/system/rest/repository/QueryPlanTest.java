@@ -0,0 +1,251 @@
+package local.nix.task.management.system.rest.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import local.nix.task.management.system.rest.config.search.SearchConfig;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the statements behind every repository query against a seeded PostgreSQL with the real migrations,
+ * and fails when one of them reads most of a table to find its rows. Each key names the repository method
+ * whose SQL the statement mirrors; methods with several typical shapes have one entry per shape.
+ */
+public class QueryPlanTest {
+
+    private static final String RESPONSE_COLUMNS = "select t.id, t.text, t.deadline, e.name, r.name, t.status,"
+            + " t.created_at from task t left outer join usr e on t.executor_id = e.id"
+            + " inner join usr r on t.reviewer_id = r.id";
+
+    private static final String USER_COLUMNS = "select u.id, u.username, u.password, u.name, u.status,"
+            + " u.created_at from usr u";
+
+    private static final Map<String, String> QUERIES = new LinkedHashMap<>();
+
+    /**
+     * Queries that are allowed to read whole tables, with the reason.
+     */
+    private static final Map<String, String> EXEMPT = new LinkedHashMap<>();
+
+    static {
+        QUERIES.put("TaskRepository.purgeById", "delete from task where id = 50000");
+        QUERIES.put("TaskRepository.findAllResponses", RESPONSE_COLUMNS + " limit 20");
+        QUERIES.put("TaskRepository.findResponseSlice", RESPONSE_COLUMNS + " limit 21 offset 40");
+        QUERIES.put("TaskRepository.findResponseById", RESPONSE_COLUMNS + " where t.id = 50000");
+        QUERIES.put("TaskRepository.findResponsesByIdIn", RESPONSE_COLUMNS
+                + " where t.id in (11, 512, 7300, 49000, 99999)");
+        QUERIES.put("TaskRepository.findFirstResponses", RESPONSE_COLUMNS
+                + " order by t.created_at, t.id limit 21");
+        QUERIES.put("TaskRepository.findResponsesAfter", RESPONSE_COLUMNS
+                + " where (t.created_at, t.id) > (timestamptz '2020-01-01 12:00:00+00', 43200)"
+                + " order by t.created_at, t.id limit 21");
+
+        QUERIES.put("FilteredTaskRepository.findFiltered(executor)", RESPONSE_COLUMNS
+                + " where t.executor_id = 7 order by t.created_at, t.id limit 21");
+        QUERIES.put("FilteredTaskRepository.findFiltered(reviewer, status, deadline)", RESPONSE_COLUMNS
+                + " where t.status in ('NOT_STARTED', 'IN_PROGRESS') and t.reviewer_id = 7"
+                + " and t.deadline >= timestamp '2021-01-10 00:00:00' and t.deadline <= timestamp '2021-01-20 00:00:00'"
+                + " order by t.deadline desc, t.id limit 21");
+        QUERIES.put("FilteredTaskRepository.findFiltered(open, deadline)", RESPONSE_COLUMNS
+                + " where t.status in ('NOT_STARTED', 'IN_PROGRESS', 'WAITS_FOR_CHECKING')"
+                + " and t.deadline <= timestamp '2021-01-02 00:00:00' order by t.created_at, t.id limit 21");
+        QUERIES.put("FilteredTaskRepository.findFiltered(created)", RESPONSE_COLUMNS
+                + " where t.created_at >= timestamptz '2020-01-01 20:00:00+00'"
+                + " and t.created_at <= timestamptz '2020-01-01 21:00:00+00' order by t.created_at, t.id limit 21");
+        QUERIES.put("FilteredTaskRepository.findFilteredAfter(executor)", RESPONSE_COLUMNS
+                + " where t.executor_id = 7 and (t.created_at > timestamptz '2020-01-01 12:00:00+00'"
+                + " or t.created_at = timestamptz '2020-01-01 12:00:00+00' and t.id > 43200)"
+                + " order by t.created_at, t.id limit 21");
+        QUERIES.put("FilteredTaskRepository.findFilteredAfter(status)", RESPONSE_COLUMNS
+                + " where t.status in ('WAITS_FOR_CHECKING') and (t.created_at > timestamptz '2020-01-01 12:00:00+00'"
+                + " or t.created_at = timestamptz '2020-01-01 12:00:00+00' and t.id > 43200)"
+                + " order by t.created_at, t.id limit 21");
+        QUERIES.put("FilteredTaskRepository.countFiltered(reviewer, status)", "select count(t.id) from task t"
+                + " where t.status in ('WAITS_FOR_CHECKING') and t.reviewer_id = 7");
+        QUERIES.put("FilteredTaskRepository.countFiltered(deadline)", "select count(t.id) from task t"
+                + " where t.deadline >= timestamp '2021-01-10 00:00:00' and t.deadline <= timestamp '2021-01-10 06:00:00'");
+
+        EXEMPT.put("TaskRepository.searchByPattern", "the LIKE search mode is the portable fallback for databases"
+                + " without pg_trgm; the indexed full-text mode is checked in FullTextTaskSearch");
+        EXEMPT.put("TaskRepository.countByPattern", "see searchByPattern");
+        EXEMPT.put("TaskRepository.searchByPatternAfter", "see searchByPattern");
+        QUERIES.put("FullTextTaskSearch.search", "select t.id from task t where t.id in ("
+                + "select t.id from task t where t.search_vector @@ plainto_tsquery('simple', 'c4ca4238')"
+                + " or t.text ilike '%c4ca4238%' escape '!' union select t.id from task t"
+                + " inner join usr u on u.id = t.executor_id where u.name ilike '%c4ca4238%' escape '!')"
+                + " order by t.id desc limit 20");
+
+        QUERIES.put("UserRepository.findUserByUsername", USER_COLUMNS
+                + " left outer join user_authorities ua on u.id = ua.user_id"
+                + " left outer join authorities a on ua.authority_id = a.id where u.username = 'user_1234'");
+        QUERIES.put("UserRepository.findUserById", USER_COLUMNS
+                + " left outer join user_authorities ua on u.id = ua.user_id"
+                + " left outer join authorities a on ua.authority_id = a.id where u.id = 1234");
+        QUERIES.put("UserRepository.findUserByName", USER_COLUMNS + " where u.name = 'User 1234'");
+        QUERIES.put("UserRepository.findIdsByName", "select u.id from usr u where u.name = 'User 1234' limit 2");
+        QUERIES.put("UserRepository.findNamesIn", "select u.id, u.name from usr u"
+                + " where u.name in ('User 1234', 'User 4321', 'User 999')");
+        QUERIES.put("UserRepository.existsByUsername", "select u.id from usr u where u.username = 'user_1234' limit 1");
+        QUERIES.put("UserRepository.purgeByUsername", "delete from usr where username = 'user_19999'");
+        QUERIES.put("UserRepository.purgeById", "delete from usr where id = 19999");
+        QUERIES.put("UserRepository.search", "select u.name from usr u where u.name like '%1234%' limit 20");
+        QUERIES.put("UserRepository.searchSlice", "select u.name from usr u where u.name like '%1234%' limit 21");
+        QUERIES.put("UserRepository.countByNameContaining", "select count(u.id) from usr u where u.name like '%1234%'");
+        QUERIES.put("UserRepository.findAllBy", USER_COLUMNS + " limit 21");
+        QUERIES.put("UserRepository.searchNames", "select u.id, u.name from usr u where u.name like '%123%'"
+                + " order by u.name, u.id limit 21");
+        QUERIES.put("UserRepository.searchNamesAfter", "select u.id, u.name from usr u where u.name like '%123%'"
+                + " and (u.name, u.id) > ('User 1230', 1230) order by u.name, u.id limit 21");
+        QUERIES.put("UserRepository.findAllByOrderByCreatedAtAscIdAsc", USER_COLUMNS
+                + " order by u.created_at, u.id limit 21");
+        QUERIES.put("UserRepository.findAfter", USER_COLUMNS
+                + " where (u.created_at, u.id) > (timestamptz '2020-01-05 00:00:00+00', 5760)"
+                + " order by u.created_at, u.id limit 21");
+        QUERIES.put("UserRepository.changeStatusByUsername", "update usr set status = 'SUSPENDED'"
+                + " where username = 'user_1234'");
+        QUERIES.put("UserRepository.changePasswordById", "update usr set password = 'changed' where id = 1234");
+
+        QUERIES.put("RefreshTokenRepository.findFamily", "select rt.family, rt.value, u.id, u.username, a.value"
+                + " from refresh_token rt inner join usr u on rt.user_id = u.id"
+                + " left outer join user_authorities ua on u.id = ua.user_id"
+                + " left outer join authorities a on ua.authority_id = a.id"
+                + " where rt.family = md5('family 1234')::uuid");
+        QUERIES.put("RefreshTokenRepository.rotate", "update refresh_token rt set value = md5('next')::uuid,"
+                + " issued_at = now(), expire_at = now() + interval '1 day'"
+                + " where rt.family = md5('family 1234')::uuid and rt.value = md5('value 1234')::uuid"
+                + " and rt.expire_at > now() and exists (select u.id from usr u"
+                + " where u.id = rt.user_id and u.status = 'ACTIVE')");
+        QUERIES.put("RefreshTokenRepository.deleteFamily", "delete from refresh_token"
+                + " where family = md5('family 1234')::uuid");
+    }
+
+    private static final String[] SEED = {
+            "insert into usr (username, password, name, status, created_at)"
+                    + " select 'user_' || g, 'password', 'User ' || g,"
+                    + " case when g % 100 = 0 then 'SUSPENDED' else 'ACTIVE' end,"
+                    + " timestamptz '2020-01-01 00:00:00+00' + g * interval '1 minute'"
+                    + " from generate_series(1, 20000) g",
+            "insert into user_authorities (user_id, authority_id) select id, 1 from usr",
+            "insert into task (text, deadline, status, created_at, executor_id, reviewer_id)"
+                    + " select 'Task ' || g || ' ' || md5(g::text),"
+                    + " timestamp '2021-01-01 00:00:00' + (g % 1000) * interval '1 hour',"
+                    + " (array['NOT_STARTED', 'IN_PROGRESS', 'WAITS_FOR_CHECKING', 'COMPLETED', 'SENT_FOR_MODIFYING',"
+                    + " 'ACCEPTED', 'ACCEPTED', 'ACCEPTED', 'ACCEPTED', 'ACCEPTED'])[g % 10 + 1],"
+                    + " timestamptz '2020-01-01 00:00:00+00' + g * interval '1 second',"
+                    + " case when g % 5 = 0 then null else g % 2000 + 1 end, g % 50 + 1"
+                    + " from generate_series(1, 100000) g",
+            "insert into refresh_token (family, value, user_id, issued_at, expire_at)"
+                    + " select md5('family ' || g)::uuid, md5('value ' || g)::uuid, g % 18000 + 1,"
+                    + " now(), now() + interval '1 day' from generate_series(1, 50000) g",
+            "vacuum analyze"
+    };
+
+    private static final List<String> SEEDED_TABLES = List.of("task", "usr", "user_authorities", "refresh_token");
+
+    /**
+     * A sequential scan reading at least this share of a seeded table fails the test.
+     */
+    private static final double FULL_SCAN_SHARE = 0.1;
+
+    private static EmbeddedPostgres postgres;
+
+    private static Map<String, Long> tableRows;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeAll
+    static void seed() throws Exception {
+        postgres = EmbeddedPostgres.builder()
+                .setLocaleConfig("locale", "C")
+                .setLocaleConfig("encoding", "UTF8")
+                .start();
+        Flyway.configure()
+                .dataSource(postgres.getPostgresDatabase())
+                .locations("classpath:db/migration", SearchConfig.FULL_TEXT_LOCATION)
+                .load()
+                .migrate();
+        tableRows = new HashMap<>();
+        try (Connection connection = postgres.getPostgresDatabase().getConnection();
+             Statement statement = connection.createStatement()) {
+            for (String sql : SEED) {
+                statement.execute(sql);
+            }
+            for (String table : SEEDED_TABLES) {
+                try (ResultSet rs = statement.executeQuery("select count(*) from " + table)) {
+                    rs.next();
+                    tableRows.put(table, rs.getLong(1));
+                }
+            }
+        }
+    }
+
+    @AfterAll
+    static void stop() throws Exception {
+        if (postgres != null) postgres.close();
+    }
+
+    @Test
+    void everyRepositoryQueryIsCheckedTest() {
+        List<String> unchecked = new ArrayList<>();
+        for (Class<?> repository : List.of(TaskRepository.class, FilteredTaskRepository.class,
+                UserRepository.class, RefreshTokenRepository.class)) {
+            for (Method method : repository.getDeclaredMethods()) {
+                if (Modifier.isStatic(method.getModifiers()) || method.isSynthetic()) continue;
+                String name = repository.getSimpleName() + "." + method.getName();
+                boolean checked = EXEMPT.containsKey(name) || QUERIES.keySet().stream()
+                        .anyMatch(key -> key.equals(name) || key.startsWith(name + "("));
+                if (!checked) unchecked.add(name);
+            }
+        }
+        assertThat(unchecked).as("repository queries without a plan check").isEmpty();
+    }
+
+    @Test
+    void noQueryScansWholeTableTest() throws Exception {
+        List<String> fullScans = new ArrayList<>();
+        try (Connection connection = postgres.getPostgresDatabase().getConnection()) {
+            connection.setAutoCommit(false);
+            for (Map.Entry<String, String> query : QUERIES.entrySet()) {
+                JsonNode plan = explain(connection, query.getValue());
+                connection.rollback();
+                collectFullScans(plan, query.getKey(), fullScans);
+            }
+        }
+        assertThat(fullScans).as("sequential scans over most of a table").isEmpty();
+    }
+
+    private JsonNode explain(Connection connection, String sql) throws SQLException, java.io.IOException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("explain (analyze, format json) " + sql)) {
+            rs.next();
+            return objectMapper.readTree(rs.getString(1)).get(0).get("Plan");
+        }
+    }
+
+    private static void collectFullScans(JsonNode node, String query, List<String> fullScans) {
+        String table = node.path("Relation Name").asText();
+        if ("Seq Scan".equals(node.path("Node Type").asText()) && tableRows.containsKey(table)) {
+            double read = (node.path("Actual Rows").asDouble() + node.path("Rows Removed by Filter").asDouble())
+                    * node.path("Actual Loops").asDouble(1);
+            if (read >= tableRows.get(table) * FULL_SCAN_SHARE) {
+                fullScans.add(query + " reads " + (long) read + " rows of " + table);
+            }
+        }
+        for (JsonNode child : node.path("Plans")) {
+            collectFullScans(child, query, fullScans);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package local.nix.task.management.system.rest.repository.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import local.nix.task.management.system.rest.model.user.KnownAuthority;
+import local.nix.task.management.system.rest.model.user.User;
+import local.nix.task.management.system.rest.model.user.UserAuthority;
+import local.nix.task.management.system.rest.model.user.event.UserAccessRevokedEvent;
+import local.nix.task.management.system.rest.model.user.event.UserChangedEvent;
+import local.nix.task.management.system.rest.repository.UserAuthorityRegistry;
+import local.nix.task.management.system.rest.repository.UserAuthorityRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class UserCacheTest {
+
+    private UserAuthorityRegistry userAuthorityRegistry;
+
+    private UserCache cache;
+
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        UserAuthority authority = new UserAuthority();
+        authority.setId(1);
+        authority.setValue(KnownAuthority.ROLE_USER);
+        UserAuthorityRepository userAuthorityRepository = mock(UserAuthorityRepository.class);
+        when(userAuthorityRepository.findAll()).thenReturn(List.of(authority));
+        userAuthorityRegistry = new UserAuthorityRegistry(userAuthorityRepository);
+        cache = new UserCache(userAuthorityRegistry, 100, Duration.ofMinutes(10));
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void servesRepeatedLookupsFromCacheTest() {
+        User first = cache.findByUsername("user", loader(user(1, "user"))).orElseThrow();
+        first.setName("Changed by caller");
+        User second = cache.findByUsername("user", loader(user(1, "user"))).orElseThrow();
+        User byId = cache.findById(1L, loader(user(1, "user"))).orElseThrow();
+
+        assertThat(loads).hasValue(1);
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getName()).isEqualTo("User 1");
+        assertThat(second.getAuthorities()).containsOnlyKeys(KnownAuthority.ROLE_USER);
+        assertThat(byId.getUsername()).isEqualTo("user");
+    }
+
+    @Test
+    void doesNotCacheMissingUsersTest() {
+        assertThat(cache.findByUsername("user", username -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        })).isEmpty();
+        cache.findByUsername("user", loader(user(1, "user")));
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void evictsChangedUserTest() {
+        cache.findByUsername("user", loader(user(1, "user")));
+
+        cache.onUserChanged(new UserChangedEvent(1, "User 1"));
+        cache.findByUsername("user", loader(user(1, "user")));
+        cache.findById(1L, loader(user(1, "user")));
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void evictsRevokedUsernameTest() {
+        cache.findById(1L, loader(user(1, "user")));
+        cache.findById(2L, loader(user(2, "other")));
+
+        cache.onUserAccessRevoked(new UserAccessRevokedEvent("user", Instant.now()));
+        cache.findById(1L, loader(user(1, "user")));
+        cache.findById(2L, loader(user(2, "other")));
+
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    void doesNotStoreLookupThatRacedWithChangeTest() {
+        User stale = user(1, "user");
+        cache.findById(1L, id -> {
+            // the user is changed and its event committed while the old row is on its way back
+            cache.onUserChanged(new UserChangedEvent(1, "User 1"));
+            return Optional.of(stale);
+        });
+        cache.findByUsername("user", username -> {
+            cache.onUserAccessRevoked(new UserAccessRevokedEvent("user", Instant.now()));
+            return Optional.of(stale);
+        });
+
+        assertThat(cache.size()).isZero();
+        cache.findById(1L, loader(user(1, "user")));
+        cache.findById(1L, loader(user(1, "user")));
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void ignoresStaleUsernameAfterRenameTest() {
+        cache.findByUsername("user", loader(user(1, "user")));
+        cache.findByUsername("renamed", loader(user(1, "renamed")));
+
+        assertThat(cache.findByUsername("user", username -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        })).isEmpty();
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    void readsThroughWhenDisabledTest() {
+        UserCache disabled = new UserCache(userAuthorityRegistry, 0, Duration.ZERO);
+
+        disabled.findByUsername("user", loader(user(1, "user")));
+        disabled.findByUsername("user", loader(user(1, "user")));
+
+        assertThat(loads).hasValue(2);
+        assertThat(disabled.size()).isZero();
+    }
+
+    @Test
+    void reportsHitRatioTest() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+
+        cache.findById(1L, loader(user(1, "user")));
+        cache.findById(1L, loader(user(1, "user")));
+
+        assertThat(registry.get("cache.hit.ratio").tag("cache", "users").gauge().value()).isEqualTo(0.5);
+        assertThat(registry.get("cache.gets").tag("cache", "users").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+    }
+
+    private <K> Function<K, Optional<User>> loader(User user) {
+        return key -> {
+            loads.incrementAndGet();
+            return Optional.of(user);
+        };
+    }
+
+    private static User user(long id, String username) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        user.setPassword("{noop}password");
+        user.setName("User " + id);
+        user.setCreatedAt(Instant.now());
+        user.getAuthorities().put(KnownAuthority.ROLE_USER, new UserAuthority());
+        return user;
+    }
+}
@@ -0,0 +1,82 @@
+package local.nix.task.management.system.rest.repository.cache;
+
+import local.nix.task.management.system.rest.model.user.event.UserChangedEvent;
+import local.nix.task.management.system.rest.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class UserNameResolverTest {
+
+    private UserRepository userRepository;
+
+    private UserNameResolver resolver;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        resolver = new UserNameResolver(userRepository, 100, Duration.ofMinutes(10));
+    }
+
+    @Test
+    void cachesUniqueNamesTest() {
+        when(userRepository.findIdsByName(eq("Unique"), any())).thenReturn(List.of(7L));
+
+        assertThat(resolver.resolve("Unique")).isEqualTo(7L);
+        assertThat(resolver.resolve("Unique")).isEqualTo(7L);
+
+        verify(userRepository, times(1)).findIdsByName(eq("Unique"), any());
+    }
+
+    @Test
+    void rejectsMissingAndAmbiguousNamesTest() {
+        when(userRepository.findIdsByName(eq("Missing"), any())).thenReturn(List.of());
+        when(userRepository.findIdsByName(eq("Shared"), any())).thenReturn(List.of(1L, 2L));
+
+        assertThatExceptionOfType(ResponseStatusException.class)
+                .isThrownBy(() -> resolver.resolve("Missing"))
+                .satisfies(e -> assertThat(e.getStatus()).isSameAs(HttpStatus.NOT_FOUND));
+        assertThatExceptionOfType(ResponseStatusException.class)
+                .isThrownBy(() -> resolver.resolve("Shared"))
+                .satisfies(e -> assertThat(e.getStatus()).isSameAs(HttpStatus.CONFLICT));
+    }
+
+    @Test
+    void newUserWithSameNameMakesItAmbiguousTest() {
+        when(userRepository.findIdsByName(eq("Popular"), any())).thenReturn(List.of(1L));
+        resolver.resolve("Popular");
+
+        when(userRepository.findIdsByName(eq("Popular"), any())).thenReturn(List.of(1L, 2L));
+        resolver.onUserChanged(new UserChangedEvent(2, "Popular"));
+
+        assertThatExceptionOfType(ResponseStatusException.class)
+                .isThrownBy(() -> resolver.resolve("Popular"))
+                .satisfies(e -> assertThat(e.getStatus()).isSameAs(HttpStatus.CONFLICT));
+    }
+
+    @Test
+    void doesNotStoreNameThatRacedWithNewNamesakeTest() {
+        when(userRepository.findIdsByName(eq("Popular"), any())).thenAnswer(invocation -> {
+            // the namesake commits while the single match is on its way back
+            resolver.onUserChanged(new UserChangedEvent(2, "Popular"));
+            return List.of(1L);
+        });
+        assertThat(resolver.resolve("Popular")).isEqualTo(1L);
+
+        when(userRepository.findIdsByName(eq("Popular"), any())).thenReturn(List.of(1L, 2L));
+
+        assertThatExceptionOfType(ResponseStatusException.class)
+                .isThrownBy(() -> resolver.resolve("Popular"))
+                .satisfies(e -> assertThat(e.getStatus()).isSameAs(HttpStatus.CONFLICT));
+    }
+}
@@ -0,0 +1,35 @@
+package local.nix.task.management.system.rest.repository.count;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+public class RowCountEstimatorTest {
+
+    @Test
+    void lastSliceNeedsNoEstimateTest() {
+        Page<String> page = RowCountEstimator.toPage(
+                new SliceImpl<>(List.of("a", "b"), PageRequest.of(3, 5), false), () -> fail("estimated"));
+
+        assertThat(page.getTotalElements()).isEqualTo(17);
+        assertThat(page.isLast()).isTrue();
+    }
+
+    @Test
+    void staleEstimateIsRaisedToWhatTheSliceShowsTest() {
+        Page<String> page = RowCountEstimator.toPage(
+                new SliceImpl<>(List.of("a", "b"), PageRequest.of(3, 2), true), () -> 4);
+
+        assertThat(page.getTotalElements()).isEqualTo(9);
+        assertThat(page.hasNext()).isTrue();
+
+        assertThat(RowCountEstimator.toPage(new SliceImpl<>(List.of("a", "b"), PageRequest.of(0, 2), true), () -> 100)
+                .getTotalElements()).isEqualTo(100);
+    }
+}
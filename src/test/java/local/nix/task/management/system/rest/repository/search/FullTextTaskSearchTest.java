@@ -0,0 +1,61 @@
+package local.nix.task.management.system.rest.repository.search;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import local.nix.task.management.system.rest.config.search.SearchConfig;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+public class FullTextTaskSearchTest {
+
+    private EmbeddedPostgres postgres;
+
+    private DataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        postgres = EmbeddedPostgres.builder().start();
+        dataSource = postgres.getPostgresDatabase();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        postgres.close();
+    }
+
+    @Test
+    void otherModesMigrateWithoutExtensionTest() {
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        NamedParameterJdbcTemplate jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+
+        assertThat(jdbcTemplate.getJdbcTemplate().queryForObject(
+                "select count(*) from pg_extension where extname = 'pg_trgm'", Long.class)).isZero();
+        assertThatIllegalStateException()
+                .isThrownBy(() -> new FullTextTaskSearch(jdbcTemplate))
+                .withMessageContaining(SearchConfig.FULL_TEXT_LOCATION);
+    }
+
+    @Test
+    void fullTextModeCreatesSearchObjectsOnEveryMigrationTest() {
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        Flyway fullText = Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration", SearchConfig.FULL_TEXT_LOCATION)
+                .load();
+        fullText.migrate();
+        fullText.migrate();
+
+        FullTextTaskSearch search = new FullTextTaskSearch(new NamedParameterJdbcTemplate(dataSource));
+
+        assertThat(search.count("report")).isZero();
+        // switching back leaves nothing in the history that the other modes would miss
+        Flyway.configure().dataSource(dataSource).load().validate();
+    }
+}
@@ -0,0 +1,39 @@
+package local.nix.task.management.system.rest.repository.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TrigramIndexTest {
+
+    @Test
+    void findsSubstringsIgnoringCaseTest() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(3, "Исправить баг\0Ёжиков Пётр");
+        index.put(1, "Fix login bug");
+        index.put(2, "Write release notes");
+
+        assertThat(index.search("ПЁТР")).containsExactly(3);
+        assertThat(index.search("ogin b")).containsExactly(1);
+        assertThat(index.search("i")).containsExactly(1, 2);
+        assertThat(index.search("bug fix")).isEmpty();
+        assertThat(index.search("баг\0ё")).containsExactly(3);
+    }
+
+    @Test
+    void updatesAndRemovesDocumentsTest() {
+        TrigramIndex index = new TrigramIndex();
+        for (long id = 1; id <= 100; id++) {
+            index.put(id, "task " + id);
+        }
+
+        index.put(42, "renamed");
+        index.remove(7);
+
+        assertThat(index.search("task 42")).isEmpty();
+        assertThat(index.search("renamed")).containsExactly(42);
+        assertThat(index.search("task 7")).containsExactly(70, 71, 72, 73, 74, 75, 76, 77, 78, 79);
+        assertThat(index.search("task")).hasSize(98);
+        assertThat(index.size()).isEqualTo(99);
+    }
+}
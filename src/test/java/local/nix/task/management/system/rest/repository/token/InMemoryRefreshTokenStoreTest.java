@@ -0,0 +1,114 @@
+package local.nix.task.management.system.rest.repository.token;
+
+import local.nix.task.management.system.rest.config.security.properties.TaskManagementSystemJWTProperties;
+import local.nix.task.management.system.rest.config.security.properties.TaskManagementSystemSecurityProperties;
+import local.nix.task.management.system.rest.exception.auth.ForeignRefreshTokenException;
+import local.nix.task.management.system.rest.exception.auth.InvalidRefreshTokenException;
+import local.nix.task.management.system.rest.model.user.KnownAuthority;
+import local.nix.task.management.system.rest.model.user.User;
+import local.nix.task.management.system.rest.model.user.UserAuthority;
+import local.nix.task.management.system.rest.model.user.UserStatus;
+import local.nix.task.management.system.rest.model.user.event.UserAccessRevokedEvent;
+import local.nix.task.management.system.rest.model.user.security.token.RefreshTokenGrant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class InMemoryRefreshTokenStoreTest {
+
+    private JdbcTemplate jdbcTemplate;
+
+    private InMemoryRefreshTokenStore store;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        TaskManagementSystemJWTProperties jwtProperties = new TaskManagementSystemJWTProperties();
+        jwtProperties.setRefreshExpireIn(Duration.ofDays(3));
+        TaskManagementSystemSecurityProperties securityProperties = new TaskManagementSystemSecurityProperties();
+        securityProperties.setJwt(jwtProperties);
+        jdbcTemplate = mock(JdbcTemplate.class);
+        store = new InMemoryRefreshTokenStore(securityProperties, jdbcTemplate);
+
+        user = new User();
+        user.setId(1L);
+        user.setUsername("token_test_user");
+        user.setStatus(UserStatus.ACTIVE);
+        UserAuthority authority = new UserAuthority();
+        authority.setValue(KnownAuthority.ROLE_USER);
+        user.getAuthorities().put(KnownAuthority.ROLE_USER, authority);
+    }
+
+    @Test
+    void rotateAndReuseDetectionTest() throws InvalidRefreshTokenException {
+        RefreshTokenGrant first = store.issue(user);
+        assertThat(first.getUsername()).isEqualTo("token_test_user");
+        assertThat(first.getAuthorities()).containsExactly(KnownAuthority.ROLE_USER);
+
+        assertThat(first.getFamily().version()).isEqualTo(7);
+        RefreshTokenGrant second = store.rotate(first.getFamily(), first.getValue());
+        assertThat(second.getFamily()).isEqualTo(first.getFamily());
+        assertThat(second.getValue()).isNotEqualTo(first.getValue());
+
+        assertThatExceptionOfType(InvalidRefreshTokenException.class)
+                .isThrownBy(() -> store.rotate(first.getFamily(), first.getValue()));
+        assertThatExceptionOfType(InvalidRefreshTokenException.class)
+                .isThrownBy(() -> store.rotate(second.getFamily(), second.getValue()));
+        assertThat(store.size()).isZero();
+    }
+
+    @Test
+    void revokeTest() throws InvalidRefreshTokenException {
+        RefreshTokenGrant own = store.issue(user);
+        store.revoke(own.getFamily(), own.getValue(), "token_test_user");
+        assertThatExceptionOfType(InvalidRefreshTokenException.class)
+                .isThrownBy(() -> store.rotate(own.getFamily(), own.getValue()));
+
+        RefreshTokenGrant stolen = store.issue(user);
+        assertThatExceptionOfType(ForeignRefreshTokenException.class)
+                .isThrownBy(() -> store.revoke(stolen.getFamily(), stolen.getValue(), "token_test_invalid_user"));
+        assertThatExceptionOfType(InvalidRefreshTokenException.class)
+                .isThrownBy(() -> store.rotate(stolen.getFamily(), stolen.getValue()));
+    }
+
+    @Test
+    void userAccessRevokedTest() {
+        RefreshTokenGrant grant = store.issue(user);
+        store.onUserAccessRevoked(new UserAccessRevokedEvent("token_test_user", Instant.now()));
+
+        assertThatExceptionOfType(InvalidRefreshTokenException.class)
+                .isThrownBy(() -> store.rotate(grant.getFamily(), grant.getValue()));
+        store.flush();
+        verify(jdbcTemplate).batchUpdate(startsWith("delete from refresh_token where user_id"),
+                argThat((List<Object[]> args) -> args.size() == 1 && args.get(0)[0].equals(1L)));
+    }
+
+    @Test
+    void flushBatchesInsertsAndCoalescesRotationsTest() throws InvalidRefreshTokenException {
+        RefreshTokenGrant first = store.issue(user);
+        RefreshTokenGrant other = store.issue(user);
+        RefreshTokenGrant second = store.rotate(first.getFamily(), first.getValue());
+        RefreshTokenGrant third = store.rotate(second.getFamily(), second.getValue());
+        store.rotate(other.getFamily(), other.getValue());
+        verifyNoInteractions(jdbcTemplate);
+
+        store.flush();
+
+        InOrder inOrder = inOrder(jdbcTemplate);
+        inOrder.verify(jdbcTemplate).batchUpdate(startsWith("insert"), argThat((List<Object[]> args) -> args.size() == 2));
+        inOrder.verify(jdbcTemplate).batchUpdate(startsWith("update"), argThat((List<Object[]> args) -> args.size() == 2
+                && args.get(0)[0].equals(third.getValue()) && args.get(0)[3].equals(first.getFamily())));
+        inOrder.verifyNoMoreInteractions();
+    }
+}
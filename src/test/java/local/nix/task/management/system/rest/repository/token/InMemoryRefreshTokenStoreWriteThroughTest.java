@@ -0,0 +1,66 @@
+package local.nix.task.management.system.rest.repository.token;
+
+import local.nix.task.management.system.rest.model.user.UserStatus;
+import local.nix.task.management.system.rest.model.user.request.MergeUserRequest;
+import local.nix.task.management.system.rest.model.user.request.SaveUserRequest;
+import local.nix.task.management.system.rest.repository.UserRepository;
+import local.nix.task.management.system.rest.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:write_through;DB_CLOSE_DELAY=-1",
+        "task-management-system.security.jwt.refresh-store.type=memory",
+        "task-management-system.security.jwt.refresh-store.durability=write-through"
+})
+@ActiveProfiles("integration-test")
+public class InMemoryRefreshTokenStoreWriteThroughTest {
+
+    @Autowired
+    private InMemoryRefreshTokenStore store;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void suspendingUserDeletesStoredTokensTest() {
+        long id = userService.create(new SaveUserRequest("write_through_user", "12345678", "Write Through User"))
+                .getId();
+        store.issue(userRepository.findUserByUsername("write_through_user").orElseThrow());
+        store.issue(userRepository.findUserByUsername("write_through_user").orElseThrow());
+        assertThat(countTokens(id)).isEqualTo(2);
+
+        userService.changeStatusById(id, UserStatus.SUSPENDED);
+
+        assertThat(countTokens(id)).isZero();
+    }
+
+    @Test
+    void renamingUserDeletesStoredTokensTest() {
+        long id = userService.create(new SaveUserRequest("write_through_old", "12345678", "Write Through Renamed"))
+                .getId();
+        store.issue(userRepository.findUserByUsername("write_through_old").orElseThrow());
+        MergeUserRequest request = new MergeUserRequest();
+        request.setUsername("write_through_new");
+
+        userService.mergeById(id, request);
+
+        assertThat(countTokens(id)).isZero();
+    }
+
+    private int countTokens(long userId) {
+        return jdbcTemplate.queryForObject("select count(*) from refresh_token where user_id = ?", Integer.class,
+                userId);
+    }
+}
@@ -0,0 +1,21 @@
+package local.nix.task.management.system.rest.repository.token;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TimeOrderedUuidTest {
+
+    @Test
+    void versionVariantAndOrderTest() {
+        UUID earlier = TimeOrderedUuid.next(1_600_000_000_000L);
+        UUID later = TimeOrderedUuid.next(1_600_000_000_001L);
+
+        assertThat(earlier.version()).isEqualTo(7);
+        assertThat(earlier.variant()).isEqualTo(2);
+        assertThat(earlier.getMostSignificantBits() >>> 16).isEqualTo(1_600_000_000_000L);
+        assertThat(earlier.toString().compareTo(later.toString())).isNegative();
+    }
+}
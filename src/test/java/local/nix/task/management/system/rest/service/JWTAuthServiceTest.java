@@ -2,8 +2,10 @@ package local.nix.task.management.system.rest.service;
 
 import com.auth0.jwt.JWT;
 import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.DecodedJWT;
 import local.nix.task.management.system.rest.config.security.properties.TaskManagementSystemJWTProperties;
 import local.nix.task.management.system.rest.config.security.properties.TaskManagementSystemSecurityProperties;
+import local.nix.task.management.system.rest.config.security.token.JWTCodec;
 import local.nix.task.management.system.rest.exception.auth.InvalidRefreshTokenException;
 import local.nix.task.management.system.rest.model.task.Task;
 import local.nix.task.management.system.rest.model.user.KnownAuthority;
@@ -15,14 +17,18 @@ import local.nix.task.management.system.rest.model.user.security.response.Access
 import local.nix.task.management.system.rest.model.user.security.token.RefreshToken;
 import local.nix.task.management.system.rest.repository.RefreshTokenRepository;
 import local.nix.task.management.system.rest.repository.UserRepository;
+import local.nix.task.management.system.rest.repository.token.DatabaseRefreshTokenStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.Duration;
 import java.time.OffsetDateTime;
 import java.util.*;
 
 import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.notNull;
 import static org.mockito.Mockito.*;
 
@@ -57,8 +63,10 @@ public class JWTAuthServiceTest {
             refreshTokenRepository = mock(RefreshTokenRepository.class);
             userRepository = mock(UserRepository.class);
             authService = new JWTAuthService(securityProperties,
-                    refreshTokenRepository,
-                    userRepository);
+                    new DatabaseRefreshTokenStore(securityProperties, refreshTokenRepository),
+                    userRepository,
+                    mock(ApplicationEventPublisher.class),
+                    new JWTCodec(secret));
 
 
     }
@@ -67,6 +75,7 @@ public class JWTAuthServiceTest {
     @Test
     void getTokenMethodTest() {
         User user = new User();
+        user.setId(1L);
         String userName = "User for token test";
         user.setName(userName);
         user.setUsername("token_test_user");
@@ -86,7 +95,8 @@ public class JWTAuthServiceTest {
         when(refreshTokenRepository.save(notNull())).thenAnswer(invocation -> {
             RefreshToken entity = invocation.getArgument(0);
             assertThat(entity.getUser().getName()).isEqualTo(userName);
-            entity.setValue(UUID.randomUUID());
+            assertThat(entity.getFamily().version()).isEqualTo(7);
+            assertThat(entity.getValue().version()).isEqualTo(7);
             return entity;
         });
 
@@ -106,84 +116,113 @@ public class JWTAuthServiceTest {
     @Test
     void refreshTokenMethodTest() throws InvalidRefreshTokenException {
         User user = new User();
+        user.setId(1L);
         user.setName("User for token test");
         user.setUsername("token_test_user");
         user.setPassword("test");
         user.setStatus(UserStatus.ACTIVE);
 
-        RefreshToken refreshToken = new RefreshToken();
-        OffsetDateTime now = OffsetDateTime.now();
-        refreshToken.setIssuedAt(now);
-        refreshToken.setExpireAt(now.plus(refreshExpireIn));
-        refreshToken.setUser(user);
-        UUID value = UUID.randomUUID();
-        refreshToken.setValue(value);
+        RefreshToken refreshToken = refreshToken(user);
+        UUID family = refreshToken.getFamily();
+        UUID value = refreshToken.getValue();
+        String signedRefreshToken = sign(refreshToken);
+
+        UUID nextValue = UUID.randomUUID();
+        when(refreshTokenRepository.rotate(eq(family), eq(value), notNull(), notNull(), notNull(), eq(UserStatus.ACTIVE)))
+                .thenAnswer(invocation -> {
+                    refreshToken.setValue(nextValue);
+                    return 1;
+                })
+                .thenReturn(0);
+        when(refreshTokenRepository.findFamily(family)).thenReturn(Optional.of(refreshToken));
+
+        AccessTokenResponse response = authService.refreshToken(signedRefreshToken);
+        DecodedJWT rotated = JWT.require(algorithm).build().verify(response.getRefreshToken());
+        assertThat(rotated.getId()).isEqualTo(nextValue.toString());
+        assertThat(rotated.getClaim("fam").asString()).isEqualTo(family.toString());
+        verify(refreshTokenRepository, never()).deleteFamily(any());
 
-        String signedRefreshToken = JWT.create()
-                .withSubject(refreshToken.getUser().getUsername())
-                .withJWTId(refreshToken.getValue().toString())
-                .withIssuedAt(Date.from(refreshToken.getIssuedAt().toInstant()))
-                .withExpiresAt(Date.from(refreshToken.getExpireAt().toInstant()))
-                .sign(algorithm);
+        assertThatExceptionOfType(InvalidRefreshTokenException.class)
+                .isThrownBy(() -> authService.refreshToken(signedRefreshToken));
+        verify(refreshTokenRepository).deleteFamily(family);
 
-        when(refreshTokenRepository.findIfValid(notNull(), notNull(), notNull())).thenReturn(Optional.of(refreshToken));
+    }
 
-        RefreshToken newRefreshToken = new RefreshToken();
-        newRefreshToken.setIssuedAt(now);
-        newRefreshToken.setExpireAt(now.plus(refreshExpireIn));
-        newRefreshToken.setUser(user);
-        UUID value1 = UUID.randomUUID();
-        newRefreshToken.setValue(value1);
+    @Test
+    void invalidateTokenMethodTest() throws InvalidRefreshTokenException {
+
+        User user = new User();
+        user.setId(1L);
+        user.setName("User for token test");
+        user.setUsername("token_test_user");
+        user.setPassword("test");
+        user.setStatus(UserStatus.ACTIVE);
 
-        when(refreshTokenRepository.save(notNull())).thenReturn(newRefreshToken);
+        RefreshToken refreshToken = refreshToken(user);
+        UUID family = refreshToken.getFamily();
+        String signedRefreshToken = sign(refreshToken);
 
-        authService.refreshToken(signedRefreshToken);
-        verify(refreshTokenRepository).updateChain(refreshToken, newRefreshToken);
+        when(refreshTokenRepository.findFamily(notNull())).thenReturn(Optional.of(refreshToken));
 
-        refreshToken.setNext(new RefreshToken());
+        String validUsername = "token_test_user";
+        authService.invalidateToken(signedRefreshToken, validUsername);
+        verify(refreshTokenRepository).findFamily(family);
+        verify(refreshTokenRepository).deleteFamily(family);
+
+        String invalidUsername = "token_test_invalid_user";
         assertThatExceptionOfType(InvalidRefreshTokenException.class)
-                .isThrownBy(() -> authService.refreshToken(signedRefreshToken));
+                .isThrownBy(() -> authService.invalidateToken(signedRefreshToken, invalidUsername));
+        verify(userRepository).changeStatusByUsername(invalidUsername, UserStatus.SUSPENDED);
+
+        refreshToken.setValue(UUID.randomUUID());
+        assertThatExceptionOfType(InvalidRefreshTokenException.class)
+                .isThrownBy(() -> authService.invalidateToken(signedRefreshToken, validUsername));
 
     }
 
     @Test
-    void invalidateTokenMethodTest() throws InvalidRefreshTokenException {
-
+    void refreshTokenWithoutFamilyTest() throws InvalidRefreshTokenException {
         User user = new User();
+        user.setId(1L);
         user.setName("User for token test");
         user.setUsername("token_test_user");
         user.setPassword("test");
         user.setStatus(UserStatus.ACTIVE);
 
+        RefreshToken refreshToken = refreshToken(user);
+        refreshToken.setFamily(refreshToken.getValue());
+        String legacyRefreshToken = JWT.create()
+                .withSubject(user.getUsername())
+                .withJWTId(refreshToken.getValue().toString())
+                .withIssuedAt(Date.from(refreshToken.getIssuedAt().toInstant()))
+                .withExpiresAt(Date.from(refreshToken.getExpireAt().toInstant()))
+                .sign(algorithm);
+
+        when(refreshTokenRepository.rotate(eq(refreshToken.getValue()), eq(refreshToken.getValue()),
+                notNull(), notNull(), notNull(), eq(UserStatus.ACTIVE))).thenReturn(1);
+        when(refreshTokenRepository.findFamily(refreshToken.getValue())).thenReturn(Optional.of(refreshToken));
+
+        assertThat(authService.refreshToken(legacyRefreshToken).getRefreshToken()).isNotNull();
+    }
+
+    private RefreshToken refreshToken(User user) {
         RefreshToken refreshToken = new RefreshToken();
         OffsetDateTime now = OffsetDateTime.now();
         refreshToken.setIssuedAt(now);
         refreshToken.setExpireAt(now.plus(refreshExpireIn));
         refreshToken.setUser(user);
-        UUID value = UUID.randomUUID();
-        refreshToken.setValue(value);
+        refreshToken.setFamily(UUID.randomUUID());
+        refreshToken.setValue(UUID.randomUUID());
+        return refreshToken;
+    }
 
-        String signedRefreshToken = JWT.create()
+    private String sign(RefreshToken refreshToken) {
+        return JWT.create()
                 .withSubject(refreshToken.getUser().getUsername())
                 .withJWTId(refreshToken.getValue().toString())
+                .withClaim("fam", refreshToken.getFamily().toString())
                 .withIssuedAt(Date.from(refreshToken.getIssuedAt().toInstant()))
                 .withExpiresAt(Date.from(refreshToken.getExpireAt().toInstant()))
                 .sign(algorithm);
-
-        when(refreshTokenRepository.findById(notNull())).thenReturn(Optional.of(refreshToken));
-
-        String validUsername = "token_test_user";
-        authService.invalidateToken(signedRefreshToken, validUsername);
-        verify(refreshTokenRepository).findById(value);
-        verify(refreshTokenRepository).deleteChain(refreshToken);
-
-        String invalidUsername = "token_test_invalid_user";
-        assertThatExceptionOfType(InvalidRefreshTokenException.class)
-                .isThrownBy(() -> authService.invalidateToken(signedRefreshToken, invalidUsername));
-
-        refreshToken.setNext(new RefreshToken());
-        assertThatExceptionOfType(InvalidRefreshTokenException.class)
-                .isThrownBy(() -> authService.invalidateToken(signedRefreshToken, validUsername));
-
     }
 }
@@ -6,9 +6,15 @@ import local.nix.task.management.system.rest.model.task.request.SaveTaskRequest;
 import local.nix.task.management.system.rest.model.task.response.TaskResponse;
 import local.nix.task.management.system.rest.model.user.User;
 import local.nix.task.management.system.rest.repository.TaskRepository;
+import local.nix.task.management.system.rest.repository.UserAuthorityRegistry;
 import local.nix.task.management.system.rest.repository.UserRepository;
+import local.nix.task.management.system.rest.repository.cache.UserCache;
+import local.nix.task.management.system.rest.repository.cache.UserNameResolver;
+import local.nix.task.management.system.rest.repository.count.RowCountEstimator;
+import local.nix.task.management.system.rest.repository.search.TaskSearch;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -16,6 +22,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -31,11 +38,16 @@ public class TaskServiceTest {
 
     private UserRepository userRepository;
 
+    private TaskSearch taskSearch;
+
     @BeforeEach
     void setUp() {
         taskRepository = mock(TaskRepository.class);
         userRepository = mock(UserRepository.class);
-        taskService = new TaskService(taskRepository, userRepository);
+        taskSearch = mock(TaskSearch.class);
+        taskService = new TaskService(taskRepository, userRepository, taskSearch, mock(ApplicationEventPublisher.class),
+                mock(RowCountEstimator.class), new UserNameResolver(userRepository, 0, Duration.ZERO),
+                new UserCache(mock(UserAuthorityRegistry.class), 0, Duration.ZERO));
     }
 
     @Test
@@ -52,19 +64,19 @@ public class TaskServiceTest {
         User testReviewer = createUserWithName("testReviewer");
         task.setReviewer(testReviewer);
 
-        when(taskRepository.findById(invalidId)).thenReturn(Optional.empty());
-        when(taskRepository.findById(validId)).thenReturn(Optional.of(task));
+        when(taskRepository.findResponseById(invalidId)).thenReturn(Optional.empty());
+        when(taskRepository.findResponseById(validId)).thenReturn(Optional.of(TaskResponse.fromTask(task)));
 
         Optional<TaskResponse> responseWithInvalidId = taskService.findById(invalidId);
 
         assertThat(responseWithInvalidId).isEmpty();
-        verify(taskRepository).findById(invalidId);
+        verify(taskRepository).findResponseById(invalidId);
 
         Optional<TaskResponse> responseWithValidId = taskService.findById(validId);
 
         assertThat(responseWithValidId).hasValueSatisfying(taskResponse ->
                 assertTaskMatchesResponse(task, taskResponse));
-        verify(taskRepository).findById(validId);
+        verify(taskRepository).findResponseById(validId);
 
         verifyNoMoreInteractions(taskRepository);
     }
@@ -85,8 +97,8 @@ public class TaskServiceTest {
         String reviewerName = "Test Reviewer";
         User testReviewer = createUserWithName(reviewerName);
 
-        when(userRepository.findUserByName(executorName)).thenReturn(Optional.of(testExecutor));
-        when(userRepository.findUserByName(reviewerName)).thenReturn(Optional.of(testReviewer));
+        stubUserName(testExecutor, 1L);
+        stubUserName(testReviewer, 2L);
 
 
         when(taskRepository.save(notNull())).thenAnswer(invocation -> {
@@ -142,11 +154,11 @@ public class TaskServiceTest {
 
         long invalidId = 2l;
 
-        when(userRepository.findUserByName(executorName)).thenReturn(Optional.of(testExecutor));
-        when(userRepository.findUserByName(reviewerName)).thenReturn(Optional.of(testReviewer));
+        stubUserName(testExecutor, 1L);
+        stubUserName(testReviewer, 2L);
 
-        when(userRepository.findUserByName(newExecutorName)).thenReturn(Optional.of(newTestExecutor));
-        when(userRepository.findUserByName(newReviewerName)).thenReturn(Optional.of(newTestReviewer));
+        stubUserName(newTestExecutor, 3L);
+        stubUserName(newTestReviewer, 4L);
 
         when(taskRepository.findById(invalidId)).thenReturn(Optional.empty());
         when(taskRepository.findById(taskId)).thenReturn(Optional.of(taskToUpdate));
@@ -226,6 +238,40 @@ public class TaskServiceTest {
 
     }
 
+    @Test
+    void changeExecutorByIdMethodTest() {
+        Task task = new Task();
+        long taskId = 1l;
+        task.setId(taskId);
+        task.setDeadline(LocalDateTime.now());
+        task.setText("test");
+        task.setStatus(TaskStatus.NOT_STARTED);
+        task.setReviewer(createUserWithName("Test Reviewer"));
+        String executorName = "Test Executor";
+        User testExecutor = createUserWithName(executorName);
+        long executorId = 2l;
+        testExecutor.setId(executorId);
+        long deletedUserId = 3l;
+
+        when(taskRepository.findById(taskId)).thenReturn(Optional.of(task));
+        when(taskRepository.save(same(task))).thenReturn(task);
+        when(userRepository.findUserById(executorId)).thenReturn(Optional.of(testExecutor));
+        when(userRepository.findUserById(deletedUserId)).thenReturn(Optional.empty());
+
+        assertThatExceptionOfType(ResponseStatusException.class)
+                .isThrownBy(() -> taskService.changeExecutorById(taskId, deletedUserId))
+                .satisfies(e -> assertThat(e.getStatus()).isSameAs(HttpStatus.NOT_FOUND));
+        assertThat(task.getExecutor()).isNull();
+        verify(taskRepository, times(0)).save(same(task));
+
+        TaskResponse response = taskService.changeExecutorById(taskId, executorId);
+
+        assertThat(response.getExecutor()).isEqualTo(executorName);
+        assertThat(task.getExecutor().getId()).isEqualTo(executorId);
+        verify(taskRepository).save(same(task));
+        verify(userRepository, times(0)).getOne(anyLong());
+    }
+
     @Test
     void searchMethodTest() {
         Task first = new Task();
@@ -248,10 +294,10 @@ public class TaskServiceTest {
         third.setReviewer(user);
 
         List<Task> taskList = List.of(first, third);
-        Page<Task> page = new PageImpl<>(taskList);
+        Page<TaskResponse> page = new PageImpl<>(taskList).map(TaskResponse::fromTask);
 
-        when(taskRepository.search("test", null)).thenReturn(page);
-        when(taskRepository.search("hello", null)).thenReturn(Page.<Task>empty());
+        when(taskSearch.search("test", null)).thenReturn(page);
+        when(taskSearch.search("hello", null)).thenReturn(Page.<TaskResponse>empty());
 
         Page<TaskResponse> mustHaveZeroSize = taskService.search("hello", null);
         assertThat(mustHaveZeroSize.getSize()).isEqualTo(0);
@@ -286,16 +332,16 @@ public class TaskServiceTest {
         third.setReviewer(user);
 
         List<Task> taskList = List.of(first, second);
-        Page<Task> page = new PageImpl<>(taskList);
+        Page<TaskResponse> page = new PageImpl<>(taskList).map(TaskResponse::fromTask);
 
         List<Task> allTasksList = List.of(first, second, third);
-        Page<Task> pageWithAllTasks = new PageImpl<>(allTasksList);
+        Page<TaskResponse> pageWithAllTasks = new PageImpl<>(allTasksList).map(TaskResponse::fromTask);
 
         Pageable firstPageWithTwoElements = PageRequest.of(0, 2);
         Pageable withoutPageable = Pageable.unpaged();
 
-        when(taskRepository.findAll(firstPageWithTwoElements)).thenReturn(page);
-        when(taskRepository.findAll(withoutPageable)).thenReturn(pageWithAllTasks);
+        when(taskRepository.findAllResponses(firstPageWithTwoElements)).thenReturn(page);
+        when(taskRepository.findAllResponses(withoutPageable)).thenReturn(pageWithAllTasks);
 
         Page<TaskResponse> result = taskService.list(firstPageWithTwoElements);
         assertThat(result.getSize()).isEqualTo(2);
@@ -318,6 +364,12 @@ public class TaskServiceTest {
         return user;
     }
 
+    private void stubUserName(User user, long id) {
+        user.setId(id);
+        when(userRepository.findIdsByName(eq(user.getName()), any())).thenReturn(List.of(id));
+        when(userRepository.getOne(id)).thenReturn(user);
+    }
+
     private static void assertTaskMatchesResponse(Task task, TaskResponse taskResponse) {
         assertThat(taskResponse.getId()).isEqualTo(task.getId());
         assertThat(taskResponse.getText()).isEqualTo(task.getText());
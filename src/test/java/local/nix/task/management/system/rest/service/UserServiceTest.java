@@ -1,21 +1,29 @@
 package local.nix.task.management.system.rest.service;
 
+import local.nix.task.management.system.rest.config.security.password.BoundedPasswordEncoder;
 import local.nix.task.management.system.rest.model.user.KnownAuthority;
 import local.nix.task.management.system.rest.model.user.User;
 import local.nix.task.management.system.rest.model.user.UserAuthority;
 import local.nix.task.management.system.rest.model.user.UserStatus;
 import local.nix.task.management.system.rest.model.user.request.SaveUserRequest;
 import local.nix.task.management.system.rest.model.user.response.UserResponse;
+import local.nix.task.management.system.rest.repository.UserAuthorityRegistry;
 import local.nix.task.management.system.rest.repository.UserAuthorityRepository;
 import local.nix.task.management.system.rest.repository.UserRepository;
+import local.nix.task.management.system.rest.repository.cache.UserCache;
+import local.nix.task.management.system.rest.repository.count.RowCountEstimator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.security.SecureRandom;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.HashMap;
 import java.util.List;
@@ -24,6 +32,7 @@ import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.notNull;
 import static org.mockito.Mockito.*;
 
@@ -45,8 +54,13 @@ public class UserServiceTest {
     void setUp() {
         userRepository = mock(UserRepository.class);
         userAuthorityRepository = mock(UserAuthorityRepository.class);
-        passwordEncoder = new BCryptPasswordEncoder(12, new SecureRandom());
-        userService = new UserService(userRepository, passwordEncoder, userAuthorityRepository);
+        BoundedPasswordEncoder boundedPasswordEncoder =
+                new BoundedPasswordEncoder(new BCryptPasswordEncoder(12, new SecureRandom()), 2, 8, 8);
+        passwordEncoder = boundedPasswordEncoder;
+        UserAuthorityRegistry userAuthorityRegistry = new UserAuthorityRegistry(userAuthorityRepository);
+        userService = new UserService(userRepository, boundedPasswordEncoder, userAuthorityRegistry,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), mock(ApplicationEventPublisher.class),
+                mock(RowCountEstimator.class), new UserCache(userAuthorityRegistry, 0, Duration.ZERO));
 
         userAuthority = new UserAuthority();
         userAuthority.setValue(KnownAuthority.ROLE_USER);
@@ -55,6 +69,8 @@ public class UserServiceTest {
         adminAuthority = new UserAuthority();
         adminAuthority.setValue(KnownAuthority.ROLE_ADMIN);
         adminAuthority.setId(2);
+
+        when(userAuthorityRepository.findAll()).thenReturn(List.of(userAuthority, adminAuthority));
     }
 
 
@@ -116,19 +132,19 @@ public class UserServiceTest {
         authorities.put(KnownAuthority.ROLE_ADMIN, adminAuthority);
         user.setAuthorities(authorities);
 
-        when(userRepository.findById(invalidId)).thenReturn(Optional.empty());
-        when(userRepository.findById(validId)).thenReturn(Optional.of(user));
+        when(userRepository.findUserById(invalidId)).thenReturn(Optional.empty());
+        when(userRepository.findUserById(validId)).thenReturn(Optional.of(user));
 
         Optional<UserResponse> responseWithInvalidId = userService.findById(invalidId);
 
         assertThat(responseWithInvalidId).isEmpty();
-        verify(userRepository).findById(invalidId);
+        verify(userRepository).findUserById(invalidId);
 
         Optional<UserResponse> responseWithValidId = userService.findById(validId);
 
         assertThat(responseWithValidId).hasValueSatisfying(userResponse ->
                 assertUserMatchesResponse(user, userResponse));
-        verify(userRepository).findById(validId);
+        verify(userRepository).findUserById(validId);
 
         verifyNoMoreInteractions(userRepository);
     }
@@ -166,6 +182,35 @@ public class UserServiceTest {
         verifyNoMoreInteractions(userRepository);
     }
 
+    @Test
+    void mergeAdminsMethodTest() {
+        User admin = new User();
+        admin.setId(1l);
+        admin.setName("Admin");
+        admin.setUsername("admin");
+        admin.setPassword(passwordEncoder.encode("admin"));
+        Map<KnownAuthority, UserAuthority> authorities = new HashMap<>();
+        authorities.put(KnownAuthority.ROLE_USER, userAuthority);
+        authorities.put(KnownAuthority.ROLE_ADMIN, adminAuthority);
+        admin.setAuthorities(authorities);
+
+        when(userRepository.findUserByName("Admin")).thenReturn(Optional.of(admin));
+        when(userRepository.findUserByName("New Admin")).thenReturn(Optional.empty());
+
+        int updated = userService.mergeAdmins(List.of(
+                new SaveUserRequest("admin", "admin", "Admin"),
+                new SaveUserRequest("new_admin", "new_admin", "New Admin")
+        ));
+
+        assertThat(updated).isEqualTo(1);
+        verify(userRepository).save(argThat(user -> "new_admin".equals(user.getUsername())
+                && passwordEncoder.matches("new_admin", user.getPassword())
+                && user.getAuthorities().keySet().containsAll(UserAuthorityRepository.ADMIN_AUTHORITIES)));
+        verify(userRepository, never()).save(admin);
+
+        assertThat(userService.mergeAdmins(List.of(new SaveUserRequest("admin", "admin", "Admin")))).isZero();
+    }
+
     void createMethodsTest(SaveUserRequest request, KnownAuthority authority) {
 
         when(userRepository.existsByUsername(request.getUsername())).thenReturn(true);
@@ -174,9 +219,6 @@ public class UserServiceTest {
                 .satisfies(e -> assertThat(e.getStatus()).isSameAs(HttpStatus.BAD_REQUEST));
 
         when(userRepository.existsByUsername(request.getUsername())).thenReturn(false);
-        when(userAuthorityRepository.findByValue(authority)).thenReturn(Optional.of(userAuthority));
-        when(userAuthorityRepository.findByValueIn(UserAuthorityRepository.ADMIN_AUTHORITIES))
-                .thenReturn(List.of(userAuthority, adminAuthority));
 
         when(userRepository.save(notNull())).thenAnswer(invocation -> {
             User entity = invocation.getArgument(0);
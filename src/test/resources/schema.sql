@@ -30,17 +30,21 @@ values ('ROLE_ADMIN');
 
 create table if not exists refresh_token
 (
-    value     uuid   not null primary key,
+    family    uuid   not null primary key,
+    value     uuid   not null,
     user_id   bigint      not null,
     issued_at timestamp with time zone not null,
     expire_at timestamp with time zone not null,
-    next      uuid,
     constraint refresh_tokens_user_fk foreign key (user_id)
-        references usr (id) on delete cascade,
-    constraint refresh_tokens_next_fk foreign key (next)
-        references refresh_token (value) on delete cascade
+        references usr (id) on delete cascade
 );
 
+create unique index if not exists refresh_token_value_index on refresh_token (value);
+
+create index if not exists refresh_token_user_id_index on refresh_token (user_id);
+
+create index if not exists refresh_token_expire_at_index on refresh_token (expire_at);
+
 -- create alias prune_refresh_tokens as
 -- $$
 -- delete
@@ -49,8 +53,10 @@ create table if not exists refresh_token
 --    or rt.user_id in (select u.id from usr u where u.id = rt.user_id and u.status = 'SUSPENDED')
 -- $$;
 
+create sequence if not exists task_id_seq increment by 100;
+
 create table if not exists task (
-                      id identity not null primary key,
+                      id bigint default next value for task_id_seq not null primary key,
                       text varchar not null,
                       deadline  timestamp,
                       status varchar not null,